@@ -2,6 +2,7 @@ plugins {
     id("java")
     id("io.freefair.lombok") version "8.6"
     id("jacoco")
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 group = "kj"
@@ -38,6 +39,10 @@ dependencies {
     // PostGresSQL
     implementation("org.postgresql:postgresql:42.7.4")
 
+    // R2DBC PostgreSQL
+    implementation("org.postgresql:r2dbc-postgresql:1.0.5.RELEASE")
+    implementation("io.r2dbc:r2dbc-pool:1.0.1.RELEASE")
+
     // Ibatis
     implementation("org.mybatis:mybatis:3.5.13")
 
@@ -93,6 +98,12 @@ tasks.jar {
     duplicatesStrategy = DuplicatesStrategy.EXCLUDE
 }
 
+jmh {
+    warmupIterations = 2
+    iterations = 5
+    fork = 1
+}
+
 jacoco {
     toolVersion = "0.8.7"
 }
@@ -0,0 +1,68 @@
+package banco.domain.cards.repository;
+
+import banco.data.remote.RemoteDatabaseManager;
+import banco.domain.cards.model.BankCard;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara {@link BankCardRepositoryImpl} (JDBC, un hilo bloqueado por consulta) con {@link R2dbcBankCardRepository}
+ * lanzando {@value #IN_FLIGHT} búsquedas por número a la vez contra la misma base de datos.
+ * Requiere un PostgreSQL en marcha con la tabla BankCards, por ejemplo el de docker-compose;
+ * la URL se puede cambiar con {@code -Dcards.benchmark.url=...}.
+ * El resultado se expresa en consultas por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(BankCardRepositoryBenchmark.IN_FLIGHT)
+public class BankCardRepositoryBenchmark {
+
+    static final int IN_FLIGHT = 1000;
+    private static final int CARDS = 10_000;
+
+    private BankCardRepositoryImpl jdbcRepository;
+    private R2dbcBankCardRepository r2dbcRepository;
+    private String[] numbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RemoteDatabaseManager db = RemoteDatabaseManager.getTestInstance(
+                System.getProperty("cards.benchmark.url", "jdbc:postgresql://localhost:5432/cards"),
+                System.getProperty("cards.benchmark.username", "postgres"),
+                System.getProperty("cards.benchmark.password", "password"));
+        jdbcRepository = BankCardRepositoryImpl.getInstance(db);
+        r2dbcRepository = R2dbcBankCardRepository.getInstance(db);
+
+        numbers = new String[CARDS];
+        for (int i = 0; i < CARDS; i++) {
+            numbers[i] = String.format("9%015d", i);
+            BankCard card = new BankCard(numbers[i], (long) (i % 100), LocalDate.now().plusYears(2));
+            if (r2dbcRepository.findById(numbers[i]).block() == null) {
+                r2dbcRepository.save(card).block();
+            }
+        }
+    }
+
+    @Benchmark
+    public int jdbcFindById() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[IN_FLIGHT];
+        for (int i = 0; i < IN_FLIGHT; i++) {
+            futures[i] = jdbcRepository.findById(numbers[i % CARDS]);
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+
+    @Benchmark
+    public long r2dbcFindById() {
+        return Flux.range(0, IN_FLIGHT)
+                .flatMap(i -> r2dbcRepository.findById(numbers[i % CARDS]), IN_FLIGHT)
+                .count()
+                .block();
+    }
+}
@@ -0,0 +1,101 @@
+package banco.domain.clients.repository;
+
+import banco.data.local.LocalDatabaseConfig;
+import banco.data.local.LocalDatabaseInitializer;
+import banco.data.local.LocalDatabaseManager;
+import banco.domain.cards.model.BankCard;
+import banco.domain.clients.model.Client;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.sql.*;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el refresco fila a fila original con el refresco por lotes sobre la base de datos
+ * SQLite en fichero configurada en localclients/database.properties.
+ * El resultado se expresa en clientes insertados por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(RefreshClientsBenchmark.CLIENTS)
+public class RefreshClientsBenchmark {
+
+    static final int CLIENTS = 10_000;
+
+    private LocalDatabaseManager db;
+    private ImplClientRepository repository;
+    private List<Client> clients;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        LocalDatabaseConfig config = new LocalDatabaseConfig("localclients/database.properties");
+        db = LocalDatabaseManager.getInstance();
+        new LocalDatabaseInitializer(config, db).initializeDatabase();
+        repository = ImplClientRepository.getInstance(db);
+
+        clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            Client client = new Client(null, "Cliente " + i, "user" + i, "user" + i + "@example.com");
+            client.setCards(List.of(new BankCard(String.format("%016d", i), null, LocalDate.now().plusYears(3))));
+            clients.add(client);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.shutdown();
+    }
+
+    @Benchmark
+    public void batchedRefresh() {
+        repository.refreshClientsAndCards(clients, Collections.emptyList()).join();
+    }
+
+    /**
+     * Reproduce el refresco original: una sentencia preparada y un viaje por cada fila.
+     */
+    @Benchmark
+    public void rowByRowRefresh() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("DELETE FROM bank_cards");
+                stmt.executeUpdate("DELETE FROM clients");
+            }
+            String clientSql = "INSERT INTO clients (name, username, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?) RETURNING id";
+            String cardSql = "INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+            for (Client client : clients) {
+                long clientId;
+                try (PreparedStatement clientStmt = conn.prepareStatement(clientSql)) {
+                    clientStmt.setString(1, client.getName());
+                    clientStmt.setString(2, client.getUsername());
+                    clientStmt.setString(3, client.getEmail());
+                    clientStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                    clientStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                    try (ResultSet rs = clientStmt.executeQuery()) {
+                        rs.next();
+                        clientId = rs.getLong("id");
+                    }
+                }
+                for (BankCard card : client.getCards()) {
+                    try (PreparedStatement cardStmt = conn.prepareStatement(cardSql)) {
+                        cardStmt.setString(1, card.getNumber());
+                        cardStmt.setLong(2, clientId);
+                        cardStmt.setDate(3, Date.valueOf(card.getExpirationDate()));
+                        cardStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                        cardStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                        cardStmt.executeUpdate();
+                    }
+                }
+            }
+            conn.commit();
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package banco.domain.clients.service.cache;
+
+import banco.domain.clients.model.Client;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Reproduce un registro de accesos sobre {@link ClientesCacheImpl} (LRU) y {@link TinyLfuClientesCache}
+ * y muestra la tasa de aciertos de cada una, con el mismo patrón que {@code findByClientId}:
+ * si la lectura falla, el cliente se añade a la caché.
+ * <p>
+ * Uso: {@code CacheTraceReplay [fichero] [tamaño]}. El fichero contiene un id de cliente por línea;
+ * sin fichero se genera una traza sintética con accesos Zipf sobre 10.000 clientes interrumpidos
+ * cada 20.000 accesos por un recorrido de 5.000 clientes que no se repiten, como una importación.
+ */
+public class CacheTraceReplay {
+
+    private static final int DEFAULT_CACHE_SIZE = 1_000;
+
+    public static void main(String[] args) throws IOException {
+        long[] trace = args.length > 0 ? readTrace(Path.of(args[0])) : syntheticTrace(42);
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_CACHE_SIZE;
+
+        System.out.printf("Traza de %d accesos, caché de %d entradas%n", trace.length, size);
+        report("LRU", trace, ClientesCacheImpl::new, size);
+        report("TinyLFU", trace, maxSize -> new TinyLfuClientesCache(maxSize, ExpirationPolicy.none()), size);
+    }
+
+    private static void report(String name, long[] trace, IntFunction<ClientesCache> factory, int size) {
+        ClientesCache cache = factory.apply(size);
+        try {
+            System.out.printf("%-8s tasa de aciertos: %.2f%%%n", name, 100.0 * replay(cache, trace));
+        } finally {
+            cache.shutdown();
+        }
+    }
+
+    /**
+     * Reproduce la traza sobre la caché
+     * @return la fracción de accesos que encontraron el cliente en la caché
+     */
+    static double replay(ClientesCache cache, long[] trace) {
+        long hits = 0;
+        for (long id : trace) {
+            if (cache.get(id) != null) {
+                hits++;
+            } else {
+                cache.put(id, new Client(id, "Cliente " + id, "cliente" + id, "cliente" + id + "@mail.com"));
+            }
+        }
+        return trace.length == 0 ? 0 : (double) hits / trace.length;
+    }
+
+    private static long[] readTrace(Path file) throws IOException {
+        try (var lines = Files.lines(file)) {
+            return lines.map(String::trim)
+                    .filter(line -> !line.isEmpty())
+                    .mapToLong(Long::parseLong)
+                    .toArray();
+        }
+    }
+
+    private static long[] syntheticTrace(long seed) {
+        int clients = 10_000;
+        int accesses = 200_000;
+        int scanEvery = 20_000;
+        int scanLength = 5_000;
+
+        double[] cumulative = new double[clients];
+        double total = 0;
+        for (int i = 0; i < clients; i++) {
+            total += 1.0 / Math.pow(i + 1, 0.9);
+            cumulative[i] = total;
+        }
+
+        Random random = new Random(seed);
+        long[] trace = new long[accesses + (accesses / scanEvery) * scanLength];
+        long nextScanId = 1_000_000;
+        int position = 0;
+        for (int i = 0; i < accesses; i++) {
+            if (i > 0 && i % scanEvery == 0) {
+                for (int j = 0; j < scanLength; j++) {
+                    trace[position++] = nextScanId++;
+                }
+            }
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            trace[position++] = index >= 0 ? index : -index - 1;
+        }
+        return Arrays.copyOf(trace, position);
+    }
+}
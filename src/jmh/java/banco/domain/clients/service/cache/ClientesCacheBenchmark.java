@@ -0,0 +1,94 @@
+package banco.domain.clients.service.cache;
+
+import banco.domain.clients.model.Client;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Mide el rendimiento de {@code get} con uno y con todos los hilos disponibles sobre una caché llena.
+ * {@code locked} es {@link ClientesCacheImpl} protegida con un único cerrojo, la forma mínima de usarla desde varios hilos;
+ * {@code striped} es {@link ConcurrentClientesCache}. Con un único cerrojo el rendimiento total apenas crece con los núcleos,
+ * mientras que con segmentos crece casi en proporción.
+ * El resultado se expresa en lecturas por segundo sumando todos los hilos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ClientesCacheBenchmark {
+
+    private static final int SIZE = 10_000;
+
+    @Param({"locked", "striped"})
+    public String implementation;
+
+    private ClientesCache cache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (implementation.equals("striped")) {
+            cache = new ConcurrentClientesCache(SIZE, ExpirationPolicy.none());
+        } else {
+            ClientesCache delegate = new ClientesCacheImpl(SIZE);
+            cache = new ClientesCache() {
+                @Override
+                public synchronized void put(Long key, Client value) {
+                    delegate.put(key, value);
+                }
+
+                @Override
+                public synchronized Client get(Long key) {
+                    return delegate.get(key);
+                }
+
+                @Override
+                public synchronized Client get(Long key, Function<? super Long, ? extends Client> loader) {
+                    return delegate.get(key, loader);
+                }
+
+                @Override
+                public synchronized CompletableFuture<Client> getAsync(Long key, Function<? super Long, ? extends CompletableFuture<? extends Client>> asyncLoader) {
+                    return delegate.getAsync(key, asyncLoader);
+                }
+
+                @Override
+                public synchronized void remove(Long key) {
+                    delegate.remove(key);
+                }
+
+                @Override
+                public synchronized void clear() {
+                    delegate.clear();
+                }
+
+                @Override
+                public void shutdown() {
+                    delegate.shutdown();
+                }
+            };
+        }
+        for (long i = 0; i < SIZE; i++) {
+            cache.put(i, new Client(i, "Cliente " + i, "cliente" + i, "cliente" + i + "@mail.com"));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Client getSingleThread() {
+        return cache.get(ThreadLocalRandom.current().nextLong(SIZE));
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Client getAllThreads() {
+        return cache.get(ThreadLocalRandom.current().nextLong(SIZE));
+    }
+}
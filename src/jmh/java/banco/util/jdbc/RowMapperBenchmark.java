@@ -0,0 +1,96 @@
+package banco.util.jdbc;
+
+import banco.domain.cards.model.BankCard;
+import banco.domain.clients.repository.LocalBankCardRowMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.*;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el mapeo por nombre de columna sobre {@code SELECT *} con el mapeo por posición
+ * de {@link LocalBankCardRowMapper} sobre una proyección explícita, en una base de datos SQLite en memoria.
+ * El resultado se expresa en filas mapeadas por segundo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(RowMapperBenchmark.ROWS)
+public class RowMapperBenchmark {
+
+    static final int ROWS = 10_000;
+
+    private Connection conn;
+    private PreparedStatement selectAll;
+    private PreparedStatement selectProjection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("""
+                CREATE TABLE bank_cards (
+                    number VARCHAR(16) PRIMARY KEY,
+                    client_id INTEGER NOT NULL,
+                    expiration_date DATE NOT NULL,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+            """);
+        }
+        conn.setAutoCommit(false);
+        try (PreparedStatement insert = conn.prepareStatement(
+                "INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)")) {
+            for (int i = 0; i < ROWS; i++) {
+                insert.setString(1, String.format("%016d", i));
+                insert.setLong(2, i % 1000);
+                insert.setDate(3, Date.valueOf(LocalDate.now().plusDays(i % 1500)));
+                insert.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                insert.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        conn.commit();
+        conn.setAutoCommit(true);
+
+        selectAll = conn.prepareStatement("SELECT * FROM bank_cards");
+        selectProjection = conn.prepareStatement("SELECT " + LocalBankCardRowMapper.COLUMNS.select() + " FROM bank_cards");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        conn.close();
+    }
+
+    /**
+     * Reproduce el mapeo original: cada columna se busca por nombre en cada fila
+     */
+    @Benchmark
+    public void byName(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = selectAll.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(new BankCard(
+                        rs.getString("number"),
+                        rs.getObject("client_id", Long.class),
+                        rs.getDate("expiration_date").toLocalDate(),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getTimestamp("updated_at").toLocalDateTime()
+                ));
+            }
+        }
+    }
+
+    @Benchmark
+    public void byIndex(Blackhole blackhole) throws SQLException {
+        try (ResultSet rs = selectProjection.executeQuery()) {
+            while (rs.next()) {
+                blackhole.consume(LocalBankCardRowMapper.INSTANCE.mapRow(rs));
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package banco.data.local;
+
+import banco.util.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Agrupa las escrituras concurrentes en una sola transacción (group commit).
+ * Las operaciones se encolan y un hilo escritor las ejecuta juntas cada {@code windowMillis}
+ * milisegundos o al alcanzar {@code maxBatchSize} operaciones, pagando un único fsync por lote.
+ * Cada operación se ejecuta dentro de un savepoint, de modo que un fallo solo deshace esa operación.
+ * Los futuros se completan en {@code completionExecutor} y no en el hilo escritor, para que las etapas
+ * encadenadas por quien llama ({@code thenApply}...) no retrasen los lotes siguientes.
+ */
+public class GroupCommitWriter {
+
+    /**
+     * Operación de escritura que se ejecuta sobre la conexión del lote en curso
+     * @param <T> el tipo del resultado
+     */
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    private static class PendingWrite<T> {
+        private final Work<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final long enqueuedAt = System.nanoTime();
+        private T result;
+        private Exception error;
+
+        private PendingWrite(Work<T> work) {
+            this.work = work;
+        }
+
+        private void execute(Connection conn) throws SQLException {
+            Savepoint savepoint = conn.setSavepoint();
+            try {
+                result = work.execute(conn);
+                conn.releaseSavepoint(savepoint);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback(savepoint);
+                error = e;
+            }
+        }
+
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(GroupCommitWriter.class);
+    private final LocalDatabaseManager db;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingWrite<?>> queue = new LinkedBlockingQueue<>();
+    private final Histogram commitLatencyMicros = new Histogram();
+    private final Histogram batchSizes = new Histogram();
+    private final Thread writerThread;
+    private final Executor completionExecutor;
+    private final Object lifecycleLock = new Object();
+    private volatile boolean running = true;
+
+    /**
+     * Crea el escritor y arranca su hilo. Los futuros se completan en el {@link ForkJoinPool#commonPool()}.
+     * @param db el manejador de la base de datos local, del que se toma la conexión de escritura
+     * @param windowMillis tiempo máximo que espera un lote a recibir más operaciones
+     * @param maxBatchSize número máximo de operaciones por transacción
+     */
+    public GroupCommitWriter(LocalDatabaseManager db, long windowMillis, int maxBatchSize) {
+        this(db, windowMillis, maxBatchSize, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Crea el escritor y arranca su hilo
+     * @param db el manejador de la base de datos local, del que se toma la conexión de escritura
+     * @param windowMillis tiempo máximo que espera un lote a recibir más operaciones
+     * @param maxBatchSize número máximo de operaciones por transacción
+     * @param completionExecutor donde se completan los futuros devueltos por {@link #submit}
+     */
+    public GroupCommitWriter(LocalDatabaseManager db, long windowMillis, int maxBatchSize, Executor completionExecutor) {
+        if (windowMillis < 0 || maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Ventana o tamaño de lote no válidos: " + windowMillis + "ms, " + maxBatchSize);
+        }
+        this.db = db;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+        this.completionExecutor = completionExecutor;
+        this.writerThread = new Thread(this::run, "sqlite-group-commit");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Encola una operación de escritura.
+     * Encolar y detener comparten cerrojo: una operación aceptada siempre llega a la cola antes de que
+     * el hilo escritor vea el escritor detenido, por lo que su futuro siempre se completa.
+     * @param work la operación a ejecutar dentro del próximo lote
+     * @return CompletableFuture que se completa cuando el lote que la contiene se confirma,
+     * o con {@link IllegalStateException} si el escritor está detenido
+     */
+    public <T> CompletableFuture<T> submit(Work<T> work) {
+        PendingWrite<T> pending = new PendingWrite<>(work);
+        synchronized (lifecycleLock) {
+            if (running) {
+                queue.add(pending);
+                return pending.future;
+            }
+        }
+        pending.future.completeExceptionally(new IllegalStateException("El escritor por lotes está detenido"));
+        return pending.future;
+    }
+
+    private void run() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(windowMillis);
+                while (batch.size() < maxBatchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                queue.drainTo(batch, maxBatchSize - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+        PendingWrite<?> leftover;
+        while ((leftover = queue.poll()) != null) {
+            PendingWrite<?> rejected = leftover;
+            completionExecutor.execute(() -> rejected.future.completeExceptionally(
+                    new IllegalStateException("El escritor por lotes está detenido")));
+        }
+    }
+
+    private void commit(List<PendingWrite<?>> batch) {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                for (PendingWrite<?> pending : batch) {
+                    pending.execute(conn);
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            logger.error("Error al confirmar un lote de {} escrituras", batch.size(), e);
+            for (PendingWrite<?> pending : batch) {
+                completionExecutor.execute(() -> pending.future.completeExceptionally(e));
+            }
+            return;
+        }
+
+        long now = System.nanoTime();
+        batchSizes.record(batch.size());
+        for (PendingWrite<?> pending : batch) {
+            commitLatencyMicros.record(TimeUnit.NANOSECONDS.toMicros(now - pending.enqueuedAt));
+            completionExecutor.execute(pending::complete);
+        }
+    }
+
+    /**
+     * Latencia en microsegundos desde que se encola una operación hasta que se confirma su lote
+     */
+    public Histogram getCommitLatencyMicros() {
+        return commitLatencyMicros;
+    }
+
+    /**
+     * Número de operaciones confirmadas en cada transacción
+     */
+    public Histogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Deja de aceptar operaciones y espera a que se confirmen las que ya están en cola
+     */
+    public void shutdown() {
+        synchronized (lifecycleLock) {
+            running = false;
+        }
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,12 +7,23 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.List;
 
 /**
  * Clase para inicializar la base de datos local
  */
 public class LocalDatabaseInitializer {
 
+    /**
+     * Índices de la base de datos local en orden de versión. La versión aplicada se guarda en
+     * {@code PRAGMA user_version}, por lo que solo se añaden índices al final de la lista.
+     */
+    private static final List<String> INDEX_MIGRATIONS = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_bank_cards_client_id ON bank_cards (client_id)",
+            "CREATE INDEX IF NOT EXISTS idx_bank_cards_expiration_date ON bank_cards (expiration_date)",
+            "CREATE INDEX IF NOT EXISTS idx_clients_updated_at ON clients (updated_at)"
+    );
+
     private Logger logger = LoggerFactory.getLogger(LocalDatabaseInitializer.class);
     private final LocalDatabaseConfig config;
     private final LocalDatabaseManager localDatabaseManager;
@@ -30,6 +41,7 @@ public class LocalDatabaseInitializer {
             logger.debug("Conexión establecida.");
             createClientsTable(conn);
             createBankCardsTable(conn);
+            createIndexes(conn);
         } catch (SQLException e) {
             logger.error("Error en la conexión: " + e.getMessage());
         }
@@ -85,6 +97,37 @@ public class LocalDatabaseInitializer {
         }
     }
 
+    /**
+     * Crea los índices que aún no se han aplicado según la versión guardada en {@code PRAGMA user_version}.
+     * Cada índice se crea en su propia transacción junto con el cambio de versión.
+     *
+     * @param conn la conexión a la base de datos
+     */
+    private void createIndexes(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            int version;
+            try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+                version = rs.next() ? rs.getInt(1) : 0;
+            }
+            for (int i = version; i < INDEX_MIGRATIONS.size(); i++) {
+                conn.setAutoCommit(false);
+                try {
+                    stmt.executeUpdate(INDEX_MIGRATIONS.get(i));
+                    stmt.executeUpdate("PRAGMA user_version = " + (i + 1));
+                    conn.commit();
+                    logger.debug("Índice de la versión {} creado.", i + 1);
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                } finally {
+                    conn.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException e) {
+            logger.error("Error al crear los índices: " + e.getMessage());
+        }
+    }
+
     /**
      * Lista las tablas de la base de datos
      */
@@ -1,18 +1,32 @@
 package banco.data.local;
 
-import banco.data.remote.RemoteDatabaseManager;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteConnection;
 
 import java.io.*;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 public class LocalDatabaseManager {
     private static LocalDatabaseManager instance;
+    private final Logger logger = LoggerFactory.getLogger(LocalDatabaseManager.class);
     private HikariDataSource dataSource;
+    private HikariDataSource readDataSource;
+    private boolean walEnabled;
+    private GroupCommitWriter groupCommitWriter;
+    private int statementCacheSize;
+    private final Map<Connection, StatementCache> statementCaches = new ConcurrentHashMap<>();
+    private final StatementCache.Stats statementCacheStats = new StatementCache.Stats();
 
 
     public static synchronized LocalDatabaseManager getInstance() {
@@ -23,39 +37,110 @@ public class LocalDatabaseManager {
     }
 
 
+    /**
+     * Crea un manejador independiente del Singleton con las propiedades indicadas.
+     * Pensado para tests que necesitan otra configuración (por ejemplo, una base de datos en fichero con WAL);
+     * quien lo crea debe llamar a {@link #shutdown()}.
+     * @param properties propiedades con el mismo formato que localclients/database.properties
+     * @return un manejador nuevo
+     */
+    public static LocalDatabaseManager newInstance(Properties properties) {
+        return new LocalDatabaseManager(properties);
+    }
+
     /**
      * Constructor privado para que no se pueda instanciar Singleton
-     * Inserta toda la configuracion de hickary a partir de un archivo de propiedades
+     * Lee la configuracion de hickary del archivo de propiedades.
      * @throws RuntimeException si no se puede cargar el archivo de propiedades
      */
     private LocalDatabaseManager() {
-        try {
-            Properties properties = new Properties();
-            try (InputStream input = getClass().getClassLoader().getResourceAsStream("localclients/database.properties")) {
-                if (input == null) {
-                    throw new RuntimeException("No se pudo encontrar el archivo database.properties");
-                }
-                properties.load(input);
+        this(loadProperties());
+    }
+
+    private static Properties loadProperties() {
+        Properties properties = new Properties();
+        try (InputStream input = LocalDatabaseManager.class.getClassLoader().getResourceAsStream("localclients/database.properties")) {
+            if (input == null) {
+                throw new RuntimeException("No se pudo encontrar el archivo database.properties");
             }
+            properties.load(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Error al cargar las propiedades de la base de datos", e);
+        }
+        return properties;
+    }
 
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl(properties.getProperty("db.url"));
-            config.setMinimumIdle(1);
-            config.setMaximumPoolSize(Integer.parseInt(properties.getProperty("db.pool.size")));
-            config.setConnectionTimeout(Long.parseLong(properties.getProperty("db.connectionTimeout")));
-            config.setIdleTimeout(Long.parseLong(properties.getProperty("db.idleTimeout")));
-            config.setMaxLifetime(Long.parseLong(properties.getProperty("db.maxLifetime")));
-            dataSource = new HikariDataSource(config);
+    /**
+     * Inserta toda la configuracion de hickary a partir de las propiedades.
+     * En modo WAL se crean dos pools: uno con una única conexión de escritura y otro
+     * con conexiones de solo lectura, de forma que las lecturas no esperan a las escrituras.
+     * Con una base de datos en memoria se usa un único pool, ya que cada conexión tendría su propia base de datos.
+     * @param properties propiedades de la base de datos
+     */
+    private LocalDatabaseManager(Properties properties) {
+        String url = properties.getProperty("db.url");
+        statementCacheSize = Integer.parseInt(properties.getProperty("db.statementCache.size", "64"));
+        walEnabled = Boolean.parseBoolean(properties.getProperty("db.wal.enabled", "false"))
+                && !url.contains(":memory:");
 
+        if (walEnabled) {
+            int readers = Integer.parseInt(properties.getProperty("db.pool.readers", "4"));
+            dataSource = new HikariDataSource(createConfig(properties, "sqlite-writer", 1, false));
+            readDataSource = new HikariDataSource(createConfig(properties, "sqlite-reader", readers, true));
+            logger.debug("Base de datos local en modo WAL con 1 escritor y {} lectores", readers);
+        } else {
+            int poolSize = Integer.parseInt(properties.getProperty("db.pool.size"));
+            dataSource = new HikariDataSource(createConfig(properties, "sqlite", poolSize, false));
+            readDataSource = dataSource;
+        }
 
-        } catch (IOException e) {
-            throw new RuntimeException("Error al cargar las propiedades de la base de datos", e);
+        if (Boolean.parseBoolean(properties.getProperty("db.groupcommit.enabled", "false"))) {
+            groupCommitWriter = new GroupCommitWriter(this,
+                    Long.parseLong(properties.getProperty("db.groupcommit.windowMs", "5")),
+                    Integer.parseInt(properties.getProperty("db.groupcommit.maxBatchSize", "256")));
         }
     }
 
+    /**
+     * Crea la configuración de Hikari de un pool con los pragmas de SQLite indicados en las propiedades
+     * @param properties propiedades de la base de datos
+     * @param poolName nombre del pool
+     * @param poolSize número máximo de conexiones
+     * @param readOnly si las conexiones se abren en modo solo lectura
+     * @return la configuración del pool
+     */
+    private HikariConfig createConfig(Properties properties, String poolName, int poolSize, boolean readOnly) {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.setSynchronous(SQLiteConfig.SynchronousMode.valueOf(properties.getProperty("db.pragma.synchronous", "NORMAL")));
+        sqliteConfig.setCacheSize(Integer.parseInt(properties.getProperty("db.pragma.cacheSize", "-2000")));
+        sqliteConfig.setBusyTimeout(Integer.parseInt(properties.getProperty("db.pragma.busyTimeout", "5000")));
+        if (walEnabled) {
+            if (readOnly) {
+                sqliteConfig.setReadOnly(true);
+            } else {
+                // El modo WAL es persistente en el fichero, basta con fijarlo desde el escritor
+                sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+            }
+        }
+
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(poolName);
+        config.setJdbcUrl(properties.getProperty("db.url"));
+        config.setDataSourceProperties(sqliteConfig.toProperties());
+        config.setConnectionInitSql("PRAGMA mmap_size = " + Long.parseLong(properties.getProperty("db.pragma.mmapSize", "0")));
+        config.setMinimumIdle(1);
+        config.setMaximumPoolSize(poolSize);
+        config.setConnectionTimeout(Long.parseLong(properties.getProperty("db.connectionTimeout")));
+        config.setIdleTimeout(Long.parseLong(properties.getProperty("db.idleTimeout")));
+        config.setMaxLifetime(Long.parseLong(properties.getProperty("db.maxLifetime")));
+        return config;
+    }
+
 
     /**
-     * Obtiene una conexión a la base de datos.
+     * Obtiene una conexión de escritura a la base de datos.
+     * En modo WAL solo existe una, por lo que las escrituras concurrentes esperan en el pool
+     * en lugar de fallar con SQLITE_BUSY.
      *
      * @return Un objeto {@link Connection} que representa la conexión a la base de datos.
      * @throws SQLException Si se produce algún error durante la obtención de la conexión.
@@ -64,9 +149,83 @@ public class LocalDatabaseManager {
         return dataSource.getConnection();
     }
 
+    /**
+     * Obtiene una conexión de solo lectura a la base de datos.
+     * Si el modo WAL no está activo devuelve una conexión del pool compartido.
+     *
+     * @return Un objeto {@link Connection} para consultas.
+     * @throws SQLException Si se produce algún error durante la obtención de la conexión.
+     */
+    public Connection getReadConnection() throws SQLException {
+        return readDataSource.getConnection();
+    }
+
+    /**
+     * Devuelve una sentencia preparada de la caché asociada a la conexión física que hay detrás de {@code conn}.
+     * La caché sobrevive a la devolución de la conexión al pool, por lo que el SQL se compila una vez por conexión.
+     * La sentencia no debe cerrarse; sí deben cerrarse los ResultSet que devuelva.
+     * Cada caché supone que su conexión la usa un único hilo a la vez, el que la tiene prestada del pool:
+     * la sentencia no debe compartirse con otros hilos ni usarse después de devolver la conexión.
+     * En cada llamada se descartan las cachés de conexiones que Hikari ya ha cerrado, para no retener sus sentencias.
+     *
+     * @param conn una conexión obtenida de este manejador
+     * @param sql el texto SQL
+     * @return la sentencia preparada, sin parámetros asignados
+     * @throws SQLException si no se puede preparar la sentencia
+     */
+    public PreparedStatement prepareCached(Connection conn, String sql) throws SQLException {
+        Connection physical = conn.unwrap(SQLiteConnection.class);
+        // Hay como mucho una caché por conexión del pool, así que recorrerlas es barato
+        statementCaches.values().removeIf(StatementCache::isConnectionClosed);
+        StatementCache cache = statementCaches.computeIfAbsent(physical, c -> new StatementCache(c, statementCacheSize, statementCacheStats));
+        return cache.prepare(sql);
+    }
+
+    /**
+     * Número de conexiones con caché de sentencias
+     */
+    int getStatementCacheCount() {
+        return statementCaches.size();
+    }
+
+    /**
+     * Aciertos, fallos y expulsiones de las cachés de sentencias de todas las conexiones
+     */
+    public StatementCache.Stats getStatementCacheStats() {
+        return statementCacheStats;
+    }
+
+    /**
+     * Número máximo de conexiones entre todos los pools
+     * @return tamaño del pool de escritura más el de lectura si es independiente
+     */
+    public int getMaxPoolSize() {
+        int size = dataSource.getMaximumPoolSize();
+        return readDataSource == dataSource ? size : size + readDataSource.getMaximumPoolSize();
+    }
+
+    public boolean isWalEnabled() {
+        return walEnabled;
+    }
+
+    /**
+     * Devuelve el escritor por lotes si el group commit está activado en las propiedades
+     * @return el escritor, o vacío si cada escritura usa su propia transacción
+     */
+    public Optional<GroupCommitWriter> getGroupCommitWriter() {
+        return Optional.ofNullable(groupCommitWriter);
+    }
+
     public void shutdown() {
+        if (groupCommitWriter != null) {
+            groupCommitWriter.shutdown();
+        }
+        statementCaches.clear();
+        if (readDataSource != null && readDataSource != dataSource && !readDataSource.isClosed()) {
+            readDataSource.close();
+        }
         if (dataSource != null && !dataSource.isClosed()) {
             dataSource.close();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,108 @@
+package banco.data.local;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché LRU de sentencias preparadas de una única conexión física, indexada por el texto SQL.
+ * sqlite-jdbc no reutiliza sentencias, así que sin esta caché cada llamada vuelve a compilar el SQL.
+ * Una conexión solo la usa un hilo a la vez (el que la tiene prestada del pool), por lo que no necesita bloqueos.
+ */
+public class StatementCache {
+
+    /**
+     * Contadores compartidos por todas las cachés de un mismo manejador
+     */
+    public static class Stats {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        public long getHits() {
+            return hits.sum();
+        }
+
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        public long getEvictions() {
+            return evictions.sum();
+        }
+
+        @Override
+        public String toString() {
+            return "hits=" + getHits() + " misses=" + getMisses() + " evictions=" + getEvictions();
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+    private final Connection connection;
+    private final Stats stats;
+    private final Map<String, PreparedStatement> statements;
+
+    /**
+     * @param connection la conexión física sobre la que se preparan las sentencias
+     * @param maxSize número máximo de sentencias abiertas
+     * @param stats contadores donde se acumulan aciertos, fallos y expulsiones
+     */
+    public StatementCache(Connection connection, int maxSize, Stats stats) {
+        this.connection = connection;
+        this.stats = stats;
+        this.statements = new LinkedHashMap<>(maxSize, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > maxSize) {
+                    close(eldest.getValue());
+                    stats.evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Devuelve la sentencia preparada para el SQL, preparándola si no estaba en caché.
+     * La sentencia se entrega sin parámetros ni lotes pendientes y no debe cerrarse.
+     * @param sql el texto SQL
+     * @return la sentencia preparada
+     * @throws SQLException si no se puede preparar
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement != null && !statement.isClosed()) {
+            stats.hits.increment();
+            statement.clearParameters();
+            statement.clearBatch();
+            return statement;
+        }
+        stats.misses.increment();
+        statement = connection.prepareStatement(sql);
+        statements.put(sql, statement);
+        return statement;
+    }
+
+    public boolean isConnectionClosed() {
+        try {
+            return connection.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    private void close(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            logger.warn("Error al cerrar una sentencia expulsada de la caché", e);
+        }
+    }
+}
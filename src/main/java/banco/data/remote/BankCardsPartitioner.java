@@ -0,0 +1,212 @@
+package banco.data.remote;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Convierte {@code BankCards} en una tabla particionada por hash de {@code clientId} sin bloquear las escrituras.
+ * <ol>
+ *     <li>Crea {@code BankCardsPartitioned} con sus particiones e índices.</li>
+ *     <li>Instala un trigger que replica en la nueva tabla cada escritura sobre la original.</li>
+ *     <li>Copia las filas existentes en lotes cortos, cada uno en su propia transacción.</li>
+ *     <li>Intercambia los nombres en una transacción breve; la tabla original queda como {@code BankCardsLegacy}.</li>
+ * </ol>
+ * Si se interrumpe se puede volver a ejecutar: la copia ignora las filas que ya existen en la nueva tabla.
+ * En la tabla particionada la clave primaria pasa a ser {@code (clientId, number)}, porque toda clave única
+ * debe incluir la columna de particionado. Para que el número siga siendo único entre clientes, un trigger
+ * mantiene la tabla {@code BankCardNumbers} con la clave primaria {@code number}: cada inserción en la tabla
+ * particionada reserva ahí su número y falla con {@code unique_violation} si ya pertenece a otro cliente.
+ */
+public class BankCardsPartitioner {
+    public static final int DEFAULT_COPY_BATCH_SIZE = 10_000;
+
+    private final Logger logger = LoggerFactory.getLogger(BankCardsPartitioner.class);
+    private final int partitions;
+    private final int batchSize;
+
+    public BankCardsPartitioner(int partitions) {
+        this(partitions, DEFAULT_COPY_BATCH_SIZE);
+    }
+
+    /**
+     * @param partitions número de particiones por hash
+     * @param batchSize filas copiadas por transacción
+     */
+    public BankCardsPartitioner(int partitions, int batchSize) {
+        if (partitions <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("Particiones o tamaño de lote no válidos: " + partitions + ", " + batchSize);
+        }
+        this.partitions = partitions;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Indica si {@code BankCards} ya es una tabla particionada
+     * @param conn la conexión a la base de datos remota
+     * @return {@code true} si la tabla está particionada
+     * @throws SQLException si falla la consulta al catálogo
+     */
+    public static boolean isPartitioned(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT c.relkind = 'p' FROM pg_class c WHERE c.relname = 'bankcards' AND pg_table_is_visible(c.oid)")) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    /**
+     * Ejecuta la conversión completa. No hace nada si la tabla ya está particionada.
+     * @param conn una conexión en autocommit
+     * @throws SQLException si falla algún paso; los anteriores quedan aplicados y se pueden reanudar
+     */
+    public void partition(Connection conn) throws SQLException {
+        if (isPartitioned(conn)) {
+            logger.debug("La tabla BankCards ya está particionada");
+            return;
+        }
+        conn.setAutoCommit(true);
+        createPartitionedTable(conn);
+        installNumberLookup(conn);
+        installSyncTrigger(conn);
+        long copied = copyRows(conn);
+        swapTables(conn);
+        logger.info("Tabla BankCards particionada en {} particiones, {} filas copiadas", partitions, copied);
+    }
+
+    private void createPartitionedTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS BankCardsPartitioned (" +
+                    "number VARCHAR(255) NOT NULL, " +
+                    "clientId BIGINT NOT NULL, " +
+                    "expirationDate DATE NOT NULL, " +
+                    "createdAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "updatedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, " +
+                    "PRIMARY KEY (clientId, number)" +
+                    ") PARTITION BY HASH (clientId)");
+            for (int i = 0; i < partitions; i++) {
+                stmt.execute("CREATE TABLE IF NOT EXISTS BankCards_p" + i + " PARTITION OF BankCardsPartitioned " +
+                        "FOR VALUES WITH (MODULUS " + partitions + ", REMAINDER " + i + ")");
+            }
+            // Las búsquedas solo por número recorren todas las particiones, pero cada una por índice
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bankcards_part_number ON BankCardsPartitioned (number)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_bankcards_part_expirationdate ON BankCardsPartitioned (expirationDate)");
+        }
+    }
+
+    /**
+     * Crea {@code BankCardNumbers} y el trigger de la tabla particionada que la mantiene.
+     * Se instala antes de copiar las filas para que la copia y el trigger de sincronización también la rellenen.
+     * Un mismo número para el mismo cliente no es un conflicto, de modo que el trigger se puede disparar dos veces
+     * sobre la misma fila, por ejemplo al mover una tarjeta de partición.
+     */
+    private void installNumberLookup(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS BankCardNumbers (" +
+                    "number VARCHAR(255) PRIMARY KEY, " +
+                    "clientId BIGINT NOT NULL)");
+            stmt.execute("""
+                    CREATE OR REPLACE FUNCTION bankcards_reserve_number() RETURNS trigger AS $$
+                    BEGIN
+                        IF TG_OP = 'UPDATE' AND OLD.number = NEW.number AND OLD.clientId = NEW.clientId THEN
+                            RETURN NULL;
+                        END IF;
+                        IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                            DELETE FROM BankCardNumbers WHERE number = OLD.number AND clientId = OLD.clientId;
+                        END IF;
+                        IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                            INSERT INTO BankCardNumbers (number, clientId) VALUES (NEW.number, NEW.clientId)
+                            ON CONFLICT (number) DO NOTHING;
+                            IF NOT FOUND AND NOT EXISTS (SELECT 1 FROM BankCardNumbers
+                                    WHERE number = NEW.number AND clientId = NEW.clientId) THEN
+                                RAISE EXCEPTION 'La tarjeta % ya pertenece a otro cliente', NEW.number
+                                    USING ERRCODE = 'unique_violation';
+                            END IF;
+                        END IF;
+                        RETURN NULL;
+                    END
+                    $$ LANGUAGE plpgsql""");
+            stmt.execute("DROP TRIGGER IF EXISTS bankcards_reserve_number ON BankCardsPartitioned");
+            stmt.execute("CREATE TRIGGER bankcards_reserve_number AFTER INSERT OR UPDATE OR DELETE ON BankCardsPartitioned " +
+                    "FOR EACH ROW EXECUTE FUNCTION bankcards_reserve_number()");
+        }
+    }
+
+    private void installSyncTrigger(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                    CREATE OR REPLACE FUNCTION bankcards_sync_partitioned() RETURNS trigger AS $$
+                    BEGIN
+                        IF TG_OP IN ('UPDATE', 'DELETE') THEN
+                            DELETE FROM BankCardsPartitioned WHERE clientId = OLD.clientId AND number = OLD.number;
+                        END IF;
+                        IF TG_OP IN ('INSERT', 'UPDATE') THEN
+                            INSERT INTO BankCardsPartitioned (number, clientId, expirationDate, createdAt, updatedAt)
+                            VALUES (NEW.number, NEW.clientId, NEW.expirationDate, NEW.createdAt, NEW.updatedAt)
+                            ON CONFLICT (clientId, number) DO UPDATE SET expirationDate = EXCLUDED.expirationDate,
+                                createdAt = EXCLUDED.createdAt, updatedAt = EXCLUDED.updatedAt;
+                        END IF;
+                        RETURN NULL;
+                    END
+                    $$ LANGUAGE plpgsql""");
+            stmt.execute("DROP TRIGGER IF EXISTS bankcards_sync_partitioned ON BankCards");
+            stmt.execute("CREATE TRIGGER bankcards_sync_partitioned AFTER INSERT OR UPDATE OR DELETE ON BankCards " +
+                    "FOR EACH ROW EXECUTE FUNCTION bankcards_sync_partitioned()");
+        }
+    }
+
+    /**
+     * Copia las filas por orden de número. Cada lote bloquea sus filas con {@code FOR SHARE}, de modo que
+     * un borrado o una actualización concurrente espera a que se confirme la copia y el trigger la corrige,
+     * en lugar de quedar una fila ya borrada en la tabla nueva.
+     */
+    private long copyRows(Connection conn) throws SQLException {
+        String copy = "WITH batch AS (" +
+                "SELECT number, clientId, expirationDate, createdAt, updatedAt FROM BankCards " +
+                "WHERE number > ? ORDER BY number LIMIT ? FOR SHARE), " +
+                "copied AS (INSERT INTO BankCardsPartitioned (number, clientId, expirationDate, createdAt, updatedAt) " +
+                "SELECT number, clientId, expirationDate, createdAt, updatedAt FROM batch " +
+                "ON CONFLICT (clientId, number) DO NOTHING) " +
+                "SELECT max(number), count(*) FROM batch";
+        String after = "";
+        long total = 0;
+        try (PreparedStatement stmt = conn.prepareStatement(copy)) {
+            while (true) {
+                stmt.setString(1, after);
+                stmt.setInt(2, batchSize);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    rs.next();
+                    long rows = rs.getLong(2);
+                    if (rows == 0) {
+                        return total;
+                    }
+                    after = rs.getString(1);
+                    total += rows;
+                }
+                logger.debug("Copiadas {} filas a BankCardsPartitioned, última: {}", total, after);
+            }
+        }
+    }
+
+    private void swapTables(Connection conn) throws SQLException {
+        conn.setAutoCommit(false);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("LOCK TABLE BankCards IN ACCESS EXCLUSIVE MODE");
+            stmt.execute("DROP TRIGGER bankcards_sync_partitioned ON BankCards");
+            stmt.execute("ALTER TABLE BankCards RENAME TO BankCardsLegacy");
+            stmt.execute("ALTER TABLE BankCardsPartitioned RENAME TO BankCards");
+            stmt.execute("DROP FUNCTION bankcards_sync_partitioned()");
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package banco.data.remote;
+
+/**
+ * Sesión de trabajo contra la base de datos remota.
+ * Con réplicas las lecturas pueden ver datos algo antiguos; una sesión con {@code readYourWrites}
+ * lee del primario en cuanto ha escrito algo, de modo que siempre ve sus propios cambios.
+ * Una sesión puede usarse desde varios hilos.
+ */
+public class DatabaseSession {
+    private final boolean readYourWrites;
+    private volatile boolean wrote;
+
+    private DatabaseSession(boolean readYourWrites) {
+        this.readYourWrites = readYourWrites;
+    }
+
+    /**
+     * Sesión que lee del primario a partir de su primera escritura
+     */
+    public static DatabaseSession readYourWrites() {
+        return new DatabaseSession(true);
+    }
+
+    /**
+     * Sesión que siempre lee de las réplicas, aunque no vea todavía sus últimas escrituras
+     */
+    public static DatabaseSession eventual() {
+        return new DatabaseSession(false);
+    }
+
+    /**
+     * Anota que la sesión ha escrito en el primario
+     */
+    public void markWrite() {
+        wrote = true;
+    }
+
+    /**
+     * Indica si las lecturas de la sesión deben ir al primario
+     */
+    public boolean readsFromPrimary() {
+        return readYourWrites && wrote;
+    }
+}
@@ -0,0 +1,20 @@
+package banco.data.remote;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Foto del estado del pool de conexiones de la base de datos remota
+ */
+@Data
+@AllArgsConstructor
+public class PoolMetrics {
+    private int activeConnections;
+    private int idleConnections;
+    private int totalConnections;
+    private int pendingThreads;
+    private long acquiredConnections;
+    private double meanWaitMicros;
+    private long p99WaitMicros;
+    private long maxWaitMicros;
+}
@@ -1,15 +1,28 @@
 package banco.data.remote;
 
 import banco.Main;
+import banco.util.Histogram;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 public class RemoteDatabaseManager {
     private static RemoteDatabaseManager instance;
@@ -20,6 +33,18 @@ public class RemoteDatabaseManager {
     private String username;
     private String password;
     private Integer poolSize;
+    private long leakDetectionThreshold = 0;
+    private int fetchSize = 1000;
+    private int partitions = 0;
+    private volatile boolean partitioned;
+    private List<String> replicaUrls = List.of();
+    private ReplicaRouter.Strategy replicaStrategy = ReplicaRouter.Strategy.ROUND_ROBIN;
+    private long replicaConnectionTimeout = 1000;
+    private long replicaRetryAfter = 30_000;
+    private ReplicaRouter replicaRouter;
+    private ConnectionPool reactivePool;
+    private final Histogram connectionWaitMicros = new Histogram();
+    private Map<String, Histogram> replicaWaitMicros = Map.of();
 
     /** 
      * Constructor privado para que no se pueda instanciar Singleton
@@ -34,10 +59,48 @@ public class RemoteDatabaseManager {
             config.setPassword(password);
             config.setMaximumPoolSize(poolSize);
             config.setDriverClassName("org.postgresql.Driver");
+            // El driver reescribe los lotes de INSERT en sentencias multi-fila
+            config.addDataSourceProperty("reWriteBatchedInserts", "true");
+            // Hikari avisa con la traza de quien obtuvo la conexión si se retiene más de este tiempo
+            config.setLeakDetectionThreshold(leakDetectionThreshold);
             dataSource = new HikariDataSource(config);
+            createReplicaPools();
+            migrate();
         }
     }
 
+    /**
+     * Crea un pool de Hikari por cada réplica configurada en {@code cards.database.replicas}.
+     * Sin réplicas todas las lecturas van al primario.
+     * Los pools no conectan al crearse, para que una réplica caída no impida arrancar, y esperan
+     * poco por una conexión, para que una lectura pase pronto al primario si la réplica no responde.
+     */
+    private void createReplicaPools() {
+        if (replicaUrls.isEmpty()) {
+            return;
+        }
+        List<HikariDataSource> replicas = new ArrayList<>();
+        Map<String, Histogram> waits = new LinkedHashMap<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig config = new HikariConfig();
+            config.setPoolName("cards-replica-" + i);
+            config.setJdbcUrl(replicaUrls.get(i));
+            config.setUsername(username);
+            config.setPassword(password);
+            config.setMaximumPoolSize(poolSize);
+            config.setReadOnly(true);
+            config.setDriverClassName("org.postgresql.Driver");
+            config.setLeakDetectionThreshold(leakDetectionThreshold);
+            config.setInitializationFailTimeout(-1);
+            config.setConnectionTimeout(replicaConnectionTimeout);
+            replicas.add(new HikariDataSource(config));
+            waits.put(config.getPoolName(), new Histogram());
+        }
+        replicaWaitMicros = waits;
+        replicaRouter = new ReplicaRouter(replicas, replicaStrategy, replicaRetryAfter);
+        logger.debug("Lecturas repartidas entre {} réplicas ({})", replicas.size(), replicaStrategy);
+    }
+
     /**
      * Método para obtener la instancia del manager de la base de datos remota
      * @return una instancia de RemoteDatabaseManager
@@ -60,6 +123,16 @@ public class RemoteDatabaseManager {
             username = props.getProperty("cards.database.username", "postgres");
             password = props.getProperty("cards.database.password", "password");
             poolSize = Integer.parseInt(props.getProperty("cards.database.pool.size", "10"));
+            leakDetectionThreshold = Long.parseLong(props.getProperty("cards.database.leakDetectionThresholdMs", "0"));
+            fetchSize = Integer.parseInt(props.getProperty("cards.database.fetchSize", "1000"));
+            partitions = Integer.parseInt(props.getProperty("cards.database.partitions", "0"));
+            replicaUrls = Arrays.stream(props.getProperty("cards.database.replicas", "").split(","))
+                    .map(String::trim)
+                    .filter(url -> !url.isEmpty())
+                    .toList();
+            replicaStrategy = ReplicaRouter.Strategy.valueOf(props.getProperty("cards.database.replicas.routing", "ROUND_ROBIN"));
+            replicaConnectionTimeout = Long.parseLong(props.getProperty("cards.database.replicas.connectionTimeoutMs", "1000"));
+            replicaRetryAfter = Long.parseLong(props.getProperty("cards.database.replicas.retryAfterMs", "30000"));
 
         } catch (IOException e) {
             logger.error("Error al leer el fichero de configuración de la base de datos " + e.getMessage());
@@ -78,27 +151,204 @@ public class RemoteDatabaseManager {
     ) {
         if (instance == null) {
             instance = new RemoteDatabaseManager(true);
+            instance.databaseUrl = url;
+            instance.username = username;
+            instance.password = password;
+            instance.poolSize = 10;
             HikariConfig config = new HikariConfig();
             config.setJdbcUrl(url);
             config.setUsername(username);
             config.setPassword(password);
+            config.addDataSourceProperty("reWriteBatchedInserts", "true");
             instance.dataSource = new HikariDataSource(config);
+            instance.migrate();
         }
         return instance;
     }
+
+    /**
+     * Aplica las migraciones pendientes según la configuración, incluido el particionado de
+     * {@code BankCards} si {@code cards.database.partitions} es mayor que cero.
+     * Un fallo se registra sin impedir el arranque: la aplicación funciona sin los índices
+     * y la migración se reintenta en el siguiente arranque.
+     */
+    public void migrate() {
+        migrate(new RemoteMigrationRunner(RemoteMigrationRunner.migrations(partitions)));
+    }
+
+    /**
+     * Aplica las migraciones pendientes de {@code runner} y comprueba después si la tabla de tarjetas está particionada
+     * @param runner el ejecutor de migraciones
+     */
+    public void migrate(RemoteMigrationRunner runner) {
+        try (Connection connection = dataSource.getConnection()) {
+            int applied = runner.migrate(connection);
+            logger.debug("Migraciones de la base de datos remota aplicadas: {}", applied);
+            partitioned = BankCardsPartitioner.isPartitioned(connection);
+        } catch (SQLException e) {
+            logger.error("Error al aplicar las migraciones de la base de datos remota: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Indica si {@code BankCards} está particionada por hash de {@code clientId}.
+     * En ese caso la clave primaria es {@code (clientId, number)} y las consultas deben llevar
+     * el {@code clientId} siempre que se conozca para que solo se lea una partición.
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
     
+    /**
+     * Número máximo de conexiones del pool
+     * @return el tamaño máximo configurado en Hikari
+     */
+    public int getPoolSize() {
+        return dataSource.getMaximumPoolSize();
+    }
+
+    /**
+     * Número de filas que se piden al servidor en cada viaje al recorrer un cursor
+     * @return el fetch size configurado en {@code cards.database.fetchSize}
+     */
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
     /**
      * Obtiene una conexión a la base de datos remota.
      *
      * Este método se encarga de obtener una conexión a la base de datos remota utilizando el
-     * {@link HikariDataSource} que se configura en el constructor de la clase. La conexión
-     * se obtiene de manera sincronizada para evitar problemas de concurrencia.
+     * {@link HikariDataSource} que se configura en el constructor de la clase. No se sincroniza:
+     * el pool de Hikari ya es seguro entre hilos y un monitor aquí serializaría todas las consultas.
+     * El tiempo de espera de cada obtención se registra en {@link #getConnectionWaitMicros()}.
      *
      * @return Un objeto {@link Connection} que representa la conexión a la base de datos.
      * @throws SQLException Si se produce algún error durante la obtención de la conexión.
      */
-    public synchronized Connection getConnection() throws SQLException {
-        logger.debug("Obteniendo una conexión a la base de datos");
-        return dataSource.getConnection();
+    public Connection getConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection connection = dataSource.getConnection();
+        connectionWaitMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        return connection;
+    }
+
+    /**
+     * Obtiene una conexión para consultas de solo lectura.
+     * Si hay réplicas configuradas se elige una según {@code cards.database.replicas.routing};
+     * si no hay réplicas, todas han fallado hace poco o la elegida no responde se usa el primario.
+     * Una réplica que no responde se salta durante {@code cards.database.replicas.retryAfterMs}.
+     * Las lecturas de una réplica pueden ir algo retrasadas respecto al primario.
+     * La espera por una réplica se registra en el histograma de esa réplica, no en el del primario.
+     *
+     * @return Un objeto {@link Connection} para consultas.
+     * @throws SQLException Si no se puede obtener conexión ni de la réplica ni del primario.
+     */
+    public Connection getReadConnection() throws SQLException {
+        if (replicaRouter == null) {
+            return getConnection();
+        }
+        HikariDataSource replica = replicaRouter.next();
+        if (replica == null) {
+            return getConnection();
+        }
+        long start = System.nanoTime();
+        try {
+            Connection connection = replica.getConnection();
+            replicaWaitMicros.get(replica.getPoolName()).record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+            return connection;
+        } catch (SQLException e) {
+            logger.warn("Réplica {} no disponible, se lee del primario: {}", replica.getPoolName(), e.getMessage());
+            replicaRouter.markFailed(replica);
+            return getConnection();
+        }
+    }
+
+    public boolean hasReplicas() {
+        return replicaRouter != null;
+    }
+
+    /**
+     * Devuelve el pool R2DBC de la base de datos remota, creándolo la primera vez.
+     * Usa la misma URL, credenciales y tamaño que el pool JDBC, de modo que no hace falta configuración adicional.
+     * Las consultas reactivas no ocupan un hilo mientras esperan a PostgreSQL.
+     * El pool se cierra en {@link #shutdown()}.
+     *
+     * @return la factoría de conexiones reactivas con pool
+     */
+    public synchronized ConnectionFactory getReactiveConnectionFactory() {
+        if (reactivePool == null) {
+            ConnectionFactoryOptions options = ConnectionFactoryOptions.parse("r2dbc:" + databaseUrl.substring("jdbc:".length()))
+                    .mutate()
+                    .option(ConnectionFactoryOptions.USER, username)
+                    .option(ConnectionFactoryOptions.PASSWORD, password)
+                    .build();
+            reactivePool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options))
+                    .name("cards-r2dbc")
+                    .maxSize(poolSize)
+                    .build());
+        }
+        return reactivePool;
+    }
+
+    /**
+     * Cierra el pool R2DBC si se llegó a crear, los pools de las réplicas y el del primario
+     */
+    public synchronized void shutdown() {
+        if (reactivePool != null) {
+            reactivePool.dispose();
+            reactivePool = null;
+        }
+        if (replicaRouter != null) {
+            replicaRouter.getReplicas().forEach(HikariDataSource::close);
+        }
+        if (dataSource != null && !dataSource.isClosed()) {
+            dataSource.close();
+        }
+    }
+
+    /**
+     * Tiempo en microsegundos que tarda cada llamada a {@link #getConnection()} en obtener una conexión del primario
+     */
+    public Histogram getConnectionWaitMicros() {
+        return connectionWaitMicros;
+    }
+
+    /**
+     * Devuelve el estado actual del pool del primario: conexiones activas, libres, hilos esperando y tiempos de espera.
+     * Si los tiempos de espera son altos el cuello de botella es el pool; si no, es la propia base de datos.
+     * Las réplicas tienen sus propias métricas en {@link #getReplicaPoolMetrics()}.
+     * @return las métricas del pool
+     */
+    public PoolMetrics getPoolMetrics() {
+        return poolMetrics(dataSource, connectionWaitMicros);
+    }
+
+    /**
+     * Devuelve las métricas del pool de cada réplica, con las esperas de esa réplica
+     * @return las métricas por nombre de pool, vacío si no hay réplicas
+     */
+    public Map<String, PoolMetrics> getReplicaPoolMetrics() {
+        Map<String, PoolMetrics> metrics = new LinkedHashMap<>();
+        if (replicaRouter != null) {
+            for (HikariDataSource replica : replicaRouter.getReplicas()) {
+                metrics.put(replica.getPoolName(), poolMetrics(replica, replicaWaitMicros.get(replica.getPoolName())));
+            }
+        }
+        return metrics;
+    }
+
+    private static PoolMetrics poolMetrics(HikariDataSource dataSource, Histogram waitMicros) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return new PoolMetrics(
+                pool.getActiveConnections(),
+                pool.getIdleConnections(),
+                pool.getTotalConnections(),
+                pool.getThreadsAwaitingConnection(),
+                waitMicros.getCount(),
+                waitMicros.getMean(),
+                waitMicros.getPercentile(99),
+                waitMicros.getMax()
+        );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,194 @@
+package banco.data.remote;
+
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Aplica al arrancar las migraciones pendientes de la base de datos de tarjetas.
+ * Las versiones aplicadas se guardan en la tabla {@code schema_migrations}, así que solo se añaden
+ * migraciones al final de la lista y cada una debe poder repetirse sin efecto.
+ * Los índices se crean con {@code CREATE INDEX CONCURRENTLY}, que no bloquea las escrituras sobre la tabla.
+ */
+public class RemoteMigrationRunner {
+
+    /**
+     * Migración que se ejecuta como código en lugar de como una única sentencia SQL
+     */
+    @FunctionalInterface
+    public interface Step {
+        void apply(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Migración versionada. Si {@code index} no es nulo la sentencia crea ese índice de forma concurrente.
+     */
+    @Getter
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final String index;
+        private final String sql;
+        private final Step step;
+
+        public Migration(int version, String description, String index, String sql) {
+            this.version = version;
+            this.description = description;
+            this.index = index;
+            this.sql = sql;
+            this.step = null;
+        }
+
+        public Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.index = null;
+            this.sql = null;
+            this.step = step;
+        }
+    }
+
+    /**
+     * Migraciones en orden de versión
+     */
+    public static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Índice de tarjetas por cliente", "idx_bankcards_clientid_number",
+                    "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bankcards_clientid_number ON BankCards (clientId, number)"),
+            new Migration(2, "Índice de tarjetas por fecha de caducidad", "idx_bankcards_expirationdate",
+                    "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bankcards_expirationdate ON BankCards (expirationDate)")
+    );
+
+    /**
+     * Migraciones a aplicar según la configuración.
+     * Con {@code partitions > 0} se añade el paso a la tabla particionada por hash de {@link BankCardsPartitioner}.
+     *
+     * @param partitions número de particiones de {@code BankCards}, o 0 para no particionar
+     * @return las migraciones en orden de versión
+     */
+    public static List<Migration> migrations(int partitions) {
+        if (partitions <= 0) {
+            return MIGRATIONS;
+        }
+        List<Migration> migrations = new ArrayList<>(MIGRATIONS);
+        migrations.add(new Migration(3, "Particionado de tarjetas por hash de cliente",
+                new BankCardsPartitioner(partitions)::partition));
+        return migrations;
+    }
+
+    /**
+     * Clave del bloqueo consultivo que impide que dos instancias migren a la vez
+     */
+    private static final long MIGRATION_LOCK_KEY = 0x62616e636f4dL;
+
+    private final Logger logger = LoggerFactory.getLogger(RemoteMigrationRunner.class);
+    private final List<Migration> migrations;
+
+    public RemoteMigrationRunner() {
+        this(MIGRATIONS);
+    }
+
+    public RemoteMigrationRunner(List<Migration> migrations) {
+        this.migrations = migrations;
+    }
+
+    /**
+     * Aplica las migraciones pendientes. Se trabaja en autocommit porque
+     * {@code CREATE INDEX CONCURRENTLY} no puede ejecutarse dentro de una transacción.
+     *
+     * @param conn la conexión a la base de datos remota
+     * @return el número de migraciones aplicadas
+     * @throws SQLException si falla alguna migración; las anteriores quedan aplicadas
+     */
+    public int migrate(Connection conn) throws SQLException {
+        conn.setAutoCommit(true);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_migrations (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(255) NOT NULL, " +
+                    "appliedAt TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+        }
+
+        lock(conn, "pg_advisory_lock");
+        try {
+            Set<Integer> applied = appliedVersions(conn);
+            int count = 0;
+            for (Migration migration : migrations) {
+                if (applied.contains(migration.version)) {
+                    continue;
+                }
+                logger.debug("Aplicando la migración {}: {}", migration.version, migration.description);
+                if (migration.index != null) {
+                    dropIfInvalid(conn, migration.index);
+                }
+                if (migration.step != null) {
+                    migration.step.apply(conn);
+                    conn.setAutoCommit(true);
+                } else {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute(migration.sql);
+                    }
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO schema_migrations (version, description) VALUES (?, ?)")) {
+                    stmt.setInt(1, migration.version);
+                    stmt.setString(2, migration.description);
+                    stmt.executeUpdate();
+                }
+                count++;
+            }
+            return count;
+        } finally {
+            lock(conn, "pg_advisory_unlock");
+        }
+    }
+
+    private Set<Integer> appliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_migrations")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+        return versions;
+    }
+
+    /**
+     * Un {@code CREATE INDEX CONCURRENTLY} interrumpido deja el índice marcado como no válido
+     * y {@code IF NOT EXISTS} no lo volvería a crear, así que se borra antes de reintentar.
+     */
+    private void dropIfInvalid(Connection conn, String index) throws SQLException {
+        boolean invalid;
+        try (PreparedStatement stmt = conn.prepareStatement(
+                "SELECT NOT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                        "WHERE c.relname = ? AND pg_table_is_visible(c.oid)")) {
+            stmt.setString(1, index);
+            try (ResultSet rs = stmt.executeQuery()) {
+                invalid = rs.next() && rs.getBoolean(1);
+            }
+        }
+        if (invalid) {
+            logger.warn("El índice {} quedó a medias en un intento anterior, se vuelve a crear", index);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+            }
+        }
+    }
+
+    private void lock(Connection conn, String function) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement("SELECT " + function + "(?)")) {
+            stmt.setLong(1, MIGRATION_LOCK_KEY);
+            stmt.execute();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package banco.data.remote;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Elige el pool de réplica al que se envía cada consulta de solo lectura.
+ * Una réplica marcada con {@link #markFailed(HikariDataSource)} deja de elegirse durante un tiempo,
+ * de modo que las lecturas no esperan en cada turno a una réplica caída.
+ */
+public class ReplicaRouter {
+
+    public enum Strategy {
+        /**
+         * Reparte las consultas por turnos entre las réplicas
+         */
+        ROUND_ROBIN,
+        /**
+         * Envía la consulta a la réplica con menos conexiones en uso o pedidas
+         */
+        LEAST_CONNECTIONS
+    }
+
+    private final List<HikariDataSource> replicas;
+    private final Strategy strategy;
+    private final AtomicInteger counter = new AtomicInteger();
+    private final long retryAfterNanos;
+    private final LongSupplier ticker;
+    private final Map<HikariDataSource, Long> unavailableUntil = new ConcurrentHashMap<>();
+
+    /**
+     * @param replicas pools de las réplicas, al menos uno
+     * @param strategy la forma de repartir las consultas
+     */
+    public ReplicaRouter(List<HikariDataSource> replicas, Strategy strategy) {
+        this(replicas, strategy, 30_000);
+    }
+
+    /**
+     * @param replicas pools de las réplicas, al menos uno
+     * @param strategy la forma de repartir las consultas
+     * @param retryAfterMillis tiempo que una réplica que ha fallado deja de elegirse
+     */
+    public ReplicaRouter(List<HikariDataSource> replicas, Strategy strategy, long retryAfterMillis) {
+        this(replicas, strategy, retryAfterMillis, System::nanoTime);
+    }
+
+    ReplicaRouter(List<HikariDataSource> replicas, Strategy strategy, long retryAfterMillis, LongSupplier ticker) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos una réplica");
+        }
+        this.replicas = List.copyOf(replicas);
+        this.strategy = strategy;
+        this.retryAfterNanos = TimeUnit.MILLISECONDS.toNanos(retryAfterMillis);
+        this.ticker = ticker;
+    }
+
+    /**
+     * Devuelve el pool al que enviar la siguiente consulta, saltando las réplicas que han fallado hace poco
+     * @return el pool de la réplica elegida, o {@code null} si ninguna está disponible
+     */
+    public HikariDataSource next() {
+        long now = ticker.getAsLong();
+        int start = Math.floorMod(counter.getAndIncrement(), replicas.size());
+        if (strategy == Strategy.ROUND_ROBIN || replicas.size() == 1) {
+            for (int i = 0; i < replicas.size(); i++) {
+                HikariDataSource replica = replicas.get((start + i) % replicas.size());
+                if (isAvailable(replica, now)) {
+                    return replica;
+                }
+            }
+            return null;
+        }
+        // Se empieza en una réplica distinta cada vez para repartir los empates
+        HikariDataSource best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            HikariDataSource replica = replicas.get((start + i) % replicas.size());
+            if (!isAvailable(replica, now)) {
+                continue;
+            }
+            int load = load(replica);
+            if (load < bestLoad) {
+                best = replica;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Deja de elegir la réplica durante el tiempo de reintento, por ejemplo porque no se pudo obtener conexión
+     * @param replica la réplica que ha fallado
+     */
+    public void markFailed(HikariDataSource replica) {
+        unavailableUntil.put(replica, ticker.getAsLong() + retryAfterNanos);
+    }
+
+    private boolean isAvailable(HikariDataSource replica, long now) {
+        Long until = unavailableUntil.get(replica);
+        if (until == null) {
+            return true;
+        }
+        if (until - now > 0) {
+            return false;
+        }
+        unavailableUntil.remove(replica, until);
+        return true;
+    }
+
+    public List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    private int load(HikariDataSource replica) {
+        HikariPoolMXBean pool = replica.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections() + pool.getThreadsAwaitingConnection();
+    }
+}
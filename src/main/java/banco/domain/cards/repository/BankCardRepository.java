@@ -1,11 +1,46 @@
 package banco.domain.cards.repository;
 
+import banco.data.remote.DatabaseSession;
 import banco.domain.cards.model.BankCard;
 import banco.util.Repository;
+import banco.util.page.Page;
+import banco.util.page.PageCursor;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface BankCardRepository extends Repository<String, BankCard> {
     public CompletableFuture<List<BankCard>> getBankCardsByClientId(Long client);
+
+    public BankCardRepository withSession(DatabaseSession session);
+
+    public CompletableFuture<BankCard> findById(Long clientId, String number);
+
+    public CompletableFuture<Boolean> delete(Long clientId, String number);
+
+    public CompletableFuture<Map<Long, List<BankCard>>> getBankCardsByClientIds(Collection<Long> clientIds);
+
+    public CompletableFuture<List<BankCard>> saveAll(List<BankCard> bankCards);
+
+    public CompletableFuture<Long> bulkLoad(Flux<BankCard> bankCards);
+
+    public Flux<BankCard> streamAll(int fetchSize);
+
+    public Flux<BankCard> streamExpiringBetween(LocalDate from, LocalDate to);
+
+    public CompletableFuture<Page<BankCard>> findPage(String afterNumber, int limit);
+
+    public CompletableFuture<Page<BankCard>> findPageByClient(Long clientId, String afterNumber, int limit);
+
+    public default CompletableFuture<Page<BankCard>> findPage(PageCursor cursor) {
+        return findPage(cursor.getAfter(), cursor.getLimit());
+    }
+
+    public default CompletableFuture<Page<BankCard>> findPageByClient(Long clientId, PageCursor cursor) {
+        return findPageByClient(clientId, cursor.getAfter(), cursor.getLimit());
+    }
 }
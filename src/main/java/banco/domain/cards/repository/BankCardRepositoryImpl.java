@@ -3,30 +3,83 @@ package banco.domain.cards.repository;
 import banco.domain.cards.exceptions.BankCardNotFoundException;
 import banco.domain.cards.exceptions.BankCardNotSavedException;
 import banco.domain.cards.model.BankCard;
+import banco.data.remote.DatabaseSession;
 import banco.data.remote.RemoteDatabaseManager;
+import banco.util.executor.ExecutorStrategy;
+import banco.util.page.Page;
+import banco.util.page.PageCursor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 
 public class BankCardRepositoryImpl implements BankCardRepository {
+    /**
+     * Número de filas por lote de INSERT en {@link #saveAll(List)}
+     */
+    public static final int SAVE_BATCH_SIZE = 1000;
+    /**
+     * Número de tarjetas que se agrupan antes de enviarlas al COPY en {@link #bulkLoad(Flux)}
+     */
+    public static final int COPY_BUFFER_SIZE = 5000;
+    /**
+     * Número máximo de ids enlazados en el array de una consulta de {@link #getBankCardsByClientIds(Collection)}
+     */
+    public static final int MAX_IDS_PER_QUERY = 5000;
+
+    private static final String SELECT_CARDS = "SELECT " + BankCardRowMapper.COLUMNS.select() + " FROM BankCards";
+
     private final Logger logger = LoggerFactory.getLogger(BankCardRepositoryImpl.class);
     private final RemoteDatabaseManager db;
+    private final ExecutorStrategy executor;
+    private final Scheduler scheduler;
+    private final DatabaseSession session;
     private static BankCardRepositoryImpl instance;
 
     /**
      * Constructor para la clase {@code BankCardRepositoryImpl}.
+     * Las consultas se ejecutan en un pool de hilos del mismo tamaño que el pool de conexiones.
      *
      * @param db El gestor de base de datos remota proporcionado.
      */
     public BankCardRepositoryImpl(RemoteDatabaseManager db) {
+        this(db, ExecutorStrategy.bounded("bankcards", db.getPoolSize()));
+    }
+
+    /**
+     * Constructor para la clase {@code BankCardRepositoryImpl}.
+     *
+     * @param db El gestor de base de datos remota proporcionado.
+     * @param executor La estrategia con la que se ejecutan las consultas.
+     */
+    public BankCardRepositoryImpl(RemoteDatabaseManager db, ExecutorStrategy executor) {
+        this(db, executor, Schedulers.fromExecutor(executor), null);
+    }
+
+    private BankCardRepositoryImpl(RemoteDatabaseManager db, ExecutorStrategy executor, Scheduler scheduler, DatabaseSession session) {
         this.db = db;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.session = session;
     }
 
     /**
@@ -42,6 +95,43 @@ public class BankCardRepositoryImpl implements BankCardRepository {
         return instance;
     }
 
+    public ExecutorStrategy getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Devuelve un repositorio que comparte gestor y ejecutor con este pero asociado a una sesión.
+     * Si la sesión pide leer sus propias escrituras, tras la primera escritura todas sus lecturas
+     * van al primario en lugar de a una réplica que puede ir retrasada.
+     *
+     * @param session La sesión a la que se asocian las operaciones.
+     * @return El repositorio de la sesión.
+     */
+    @Override
+    public BankCardRepositoryImpl withSession(DatabaseSession session) {
+        return new BankCardRepositoryImpl(db, executor, scheduler, session);
+    }
+
+    /**
+     * Conexión para consultas: una réplica si las hay, salvo que la sesión deba leer del primario
+     */
+    private Connection readConnection() throws SQLException {
+        if (session != null && session.readsFromPrimary()) {
+            return db.getConnection();
+        }
+        return db.getReadConnection();
+    }
+
+    /**
+     * Conexión al primario para escrituras, que queda anotada en la sesión
+     */
+    private Connection writeConnection() throws SQLException {
+        if (session != null) {
+            session.markWrite();
+        }
+        return db.getConnection();
+    }
+
     /**
      * Busca todas las tarjetas de crédito en la base de datos.
      *
@@ -52,21 +142,15 @@ public class BankCardRepositoryImpl implements BankCardRepository {
     public CompletableFuture<List<BankCard>> findAll() {
         return CompletableFuture.supplyAsync(() -> {
             List<BankCard> lista = new ArrayList<>();
-            String query = "SELECT * FROM BankCards";
+            String query = SELECT_CARDS;
             logger.debug("Buscando todas las tarjetas de crédito en la base de datos");
 
-            try (var connection = db.getConnection();
+            try (var connection = readConnection();
                  var stmt = connection.prepareStatement(query);
                  var rs = stmt.executeQuery()) {
 
                 while (rs.next()) {
-                    BankCard bankCard = BankCard.builder()
-                            .number(rs.getString("number"))
-                            .clientId(rs.getObject("clientId", Long.class))
-                            .expirationDate(rs.getObject("expirationDate", LocalDate.class))
-                            .createdAt(rs.getObject("createdAt", LocalDateTime.class))
-                            .updatedAt(rs.getObject("updatedAt", LocalDateTime.class))
-                            .build();
+                    BankCard bankCard = BankCardRowMapper.INSTANCE.mapRow(rs);
                     lista.add(bankCard);
                 }
             } catch (SQLException e) {
@@ -74,7 +158,7 @@ public class BankCardRepositoryImpl implements BankCardRepository {
                 throw new CompletionException(e);
             }
             return lista;
-        });
+        }, executor);
     }
 
     /**
@@ -87,28 +171,51 @@ public class BankCardRepositoryImpl implements BankCardRepository {
     public CompletableFuture<BankCard> findById(String id) {
         return CompletableFuture.supplyAsync(() -> {
             BankCard bankCard = null;
-            String query = "SELECT * FROM BankCards WHERE number = ?";
+            String query = SELECT_CARDS + " WHERE number = ?";
             logger.debug("Buscando la tarjeta de crédito con uuid: {}", id);
 
-            try (var connection = db.getConnection();
+            try (var connection = readConnection();
                  var stmt = connection.prepareStatement(query)) {
                 stmt.setObject(1, id);
                 var rs = stmt.executeQuery();
                 if (rs.next()) {
-                    bankCard = BankCard.builder()
-                            .number(rs.getString("number"))
-                            .clientId(rs.getObject("clientId", Long.class))
-                            .expirationDate(rs.getObject("expirationDate", LocalDate.class))
-                            .createdAt(rs.getObject("createdAt", LocalDateTime.class))
-                            .updatedAt(rs.getObject("updatedAt", LocalDateTime.class))
-                            .build();
+                    bankCard = BankCardRowMapper.INSTANCE.mapRow(rs);
                 }
             } catch (SQLException e) {
                 logger.error("Error al buscar la tarjeta de crédito por uuid", e);
                 throw new CompletionException(e);
             }
             return bankCard;
-        });
+        }, executor);
+    }
+
+    /**
+     * Busca una tarjeta de crédito por cliente y número.
+     * Con la tabla particionada por cliente solo se consulta la partición de ese cliente,
+     * mientras que {@link #findById(String)} tiene que revisar el índice de todas.
+     *
+     * @param clientId El id del cliente propietario.
+     * @param number El número de la tarjeta de crédito a buscar.
+     * @return Un {@code CompletableFuture} que contiene la tarjeta de crédito si se encuentra, o {@code null} si no existe.
+     */
+    @Override
+    public CompletableFuture<BankCard> findById(Long clientId, String number) {
+        return CompletableFuture.supplyAsync(() -> {
+            String query = SELECT_CARDS + " WHERE clientId = ? AND number = ?";
+            logger.debug("Buscando la tarjeta de crédito {} del cliente {}", number, clientId);
+
+            try (var connection = readConnection();
+                 var stmt = connection.prepareStatement(query)) {
+                stmt.setLong(1, clientId);
+                stmt.setString(2, number);
+                try (var rs = stmt.executeQuery()) {
+                    return rs.next() ? BankCardRowMapper.INSTANCE.mapRow(rs) : null;
+                }
+            } catch (SQLException e) {
+                logger.error("Error al buscar la tarjeta de crédito por cliente y número", e);
+                throw new CompletionException(e);
+            }
+        }, executor);
     }
 
     /**
@@ -123,7 +230,7 @@ public class BankCardRepositoryImpl implements BankCardRepository {
         logger.debug("Guardando la tarjeta de crédito: {}", bankCard);
 
         return CompletableFuture.supplyAsync(() -> {
-            try (var connection = db.getConnection();
+            try (var connection = writeConnection();
                  var stmt = connection.prepareStatement(query)) {
                 stmt.setString(1, bankCard.getNumber());
                 stmt.setObject(2, bankCard.getClientId());
@@ -141,11 +248,13 @@ public class BankCardRepositoryImpl implements BankCardRepository {
                 throw new CompletionException(e);
             }
             return bankCard;
-        });
+        }, executor);
     }
 
     /**
      * Actualiza una tarjeta de crédito existente en la base de datos.
+     * Con la tabla particionada, si la tarjeta trae {@code clientId} se usa también como filtro
+     * para que solo se lea la partición de ese cliente. Sin particionar se filtra solo por número, como antes.
      *
      * @param id El número de la tarjeta a actualizar.
      * @param bankCard La tarjeta de crédito con los nuevos datos.
@@ -154,15 +263,22 @@ public class BankCardRepositoryImpl implements BankCardRepository {
     @Override
     public CompletableFuture<BankCard> update(String id, BankCard bankCard) {
         return CompletableFuture.supplyAsync(() -> {
-            String query = "UPDATE BankCards SET expirationDate = ?, updatedAt = ? WHERE number = ?";
+            // Con el cliente conocido la actualización solo toca su partición
+            boolean withClient = db.isPartitioned() && bankCard.getClientId() != null;
+            String query = withClient
+                    ? "UPDATE BankCards SET expirationDate = ?, updatedAt = ? WHERE number = ? AND clientId = ?"
+                    : "UPDATE BankCards SET expirationDate = ?, updatedAt = ? WHERE number = ?";
             logger.debug("Actualizando la tarjeta de crédito con uuid: {}", id);
 
-            try (var connection = db.getConnection();
+            try (var connection = writeConnection();
                  var stmt = connection.prepareStatement(query)) {
 
                 stmt.setObject(1, bankCard.getExpirationDate());
                 stmt.setObject(2, LocalDateTime.now());
                 stmt.setString(3, bankCard.getNumber());
+                if (withClient) {
+                    stmt.setLong(4, bankCard.getClientId());
+                }
 
                 int res = stmt.executeUpdate();
                 if (res > 0) {
@@ -176,7 +292,7 @@ public class BankCardRepositoryImpl implements BankCardRepository {
                 throw new CompletionException(e);
             }
             return bankCard;
-        });
+        }, executor);
     }
 
     /**
@@ -191,7 +307,7 @@ public class BankCardRepositoryImpl implements BankCardRepository {
             String query = "DELETE FROM BankCards WHERE number = ?";
             logger.debug("Eliminando la tarjeta de crédito con uuid: {}", id);
 
-            try (var connection = db.getConnection();
+            try (var connection = writeConnection();
                  var stmt = connection.prepareStatement(query)) {
 
                 stmt.setObject(1, id);
@@ -201,7 +317,32 @@ public class BankCardRepositoryImpl implements BankCardRepository {
                 logger.error("Error al eliminar la tarjeta de crédito", e);
                 throw new CompletionException(e);
             }
-        });
+        }, executor);
+    }
+
+    /**
+     * Elimina una tarjeta de crédito por cliente y número, leyendo solo la partición de ese cliente.
+     *
+     * @param clientId El id del cliente propietario.
+     * @param number El número de la tarjeta de crédito a eliminar.
+     * @return Un {@code CompletableFuture} que contiene {@code true} si la tarjeta fue eliminada, o {@code false} si no se encontró.
+     */
+    @Override
+    public CompletableFuture<Boolean> delete(Long clientId, String number) {
+        return CompletableFuture.supplyAsync(() -> {
+            String query = "DELETE FROM BankCards WHERE clientId = ? AND number = ?";
+            logger.debug("Eliminando la tarjeta de crédito {} del cliente {}", number, clientId);
+
+            try (var connection = writeConnection();
+                 var stmt = connection.prepareStatement(query)) {
+                stmt.setLong(1, clientId);
+                stmt.setString(2, number);
+                return stmt.executeUpdate() > 0;
+            } catch (SQLException e) {
+                logger.error("Error al eliminar la tarjeta de crédito", e);
+                throw new CompletionException(e);
+            }
+        }, executor);
     }
 
     /**
@@ -214,22 +355,16 @@ public class BankCardRepositoryImpl implements BankCardRepository {
     public CompletableFuture<List<BankCard>> getBankCardsByClientId(Long clientId) {
         return CompletableFuture.supplyAsync(() -> {
             List<BankCard> lista = new ArrayList<>();
-            String query = "SELECT * FROM BankCards WHERE clientId = ?";
+            String query = SELECT_CARDS + " WHERE clientId = ?";
             logger.debug("Buscando las tarjetas de crédito del cliente con uuid: {}", clientId);
 
-            try (var connection = db.getConnection();
+            try (var connection = readConnection();
                  var stmt = connection.prepareStatement(query)) {
 
                 stmt.setObject(1, clientId);
                 var rs = stmt.executeQuery();
                 while (rs.next()) {
-                    BankCard bankCard = BankCard.builder()
-                            .number(rs.getString("number"))
-                            .clientId(rs.getObject("clientId", Long.class))
-                            .expirationDate(rs.getObject("expirationDate", LocalDate.class))
-                            .createdAt(rs.getObject("createdAt", LocalDateTime.class))
-                            .updatedAt(rs.getObject("updatedAt", LocalDateTime.class))
-                            .build();
+                    BankCard bankCard = BankCardRowMapper.INSTANCE.mapRow(rs);
                     lista.add(bankCard);
                 }
             } catch (SQLException e) {
@@ -237,7 +372,399 @@ public class BankCardRepositoryImpl implements BankCardRepository {
                 throw new CompletionException(e);
             }
             return lista;
-        });
+        }, executor);
     }
-}
 
+    /**
+     * Busca las tarjetas de varios clientes con una consulta {@code WHERE clientId = ANY(?)}
+     * que recibe los ids como un único parámetro {@code bigint[]}, en lugar de una consulta por cliente.
+     * Los conjuntos muy grandes se dividen en trozos de {@link #MAX_IDS_PER_QUERY} ids.
+     *
+     * @param clientIds Los ids de los clientes; los repetidos y nulos se ignoran.
+     * @return Un {@code CompletableFuture} con las tarjetas de cada cliente ordenadas por número.
+     *         Todos los ids pedidos aparecen en el mapa, con una lista vacía si no tienen tarjetas.
+     */
+    @Override
+    public CompletableFuture<Map<Long, List<BankCard>>> getBankCardsByClientIds(Collection<Long> clientIds) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(clientIds));
+            ids.removeIf(id -> id == null);
+            Map<Long, List<BankCard>> cardsByClient = new HashMap<>();
+            ids.forEach(id -> cardsByClient.put(id, new ArrayList<>()));
+            if (ids.isEmpty()) {
+                return cardsByClient;
+            }
+            String query = SELECT_CARDS +
+                    " WHERE clientId = ANY(?) ORDER BY clientId, number";
+            logger.debug("Buscando las tarjetas de crédito de {} clientes", ids.size());
+
+            try (var connection = readConnection();
+                 var stmt = connection.prepareStatement(query)) {
+                for (int from = 0; from < ids.size(); from += MAX_IDS_PER_QUERY) {
+                    List<Long> chunk = ids.subList(from, Math.min(from + MAX_IDS_PER_QUERY, ids.size()));
+                    var array = connection.createArrayOf("bigint", chunk.toArray());
+                    try {
+                        stmt.setArray(1, array);
+                        try (var rs = stmt.executeQuery()) {
+                            while (rs.next()) {
+                                BankCard bankCard = BankCardRowMapper.INSTANCE.mapRow(rs);
+                                cardsByClient.get(bankCard.getClientId()).add(bankCard);
+                            }
+                        }
+                    } finally {
+                        array.free();
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error al buscar las tarjetas de crédito de varios clientes", e);
+                throw new CompletionException(e);
+            }
+            return cardsByClient;
+        }, executor);
+    }
+
+    /**
+     * Guarda varias tarjetas en una única transacción usando lotes JDBC.
+     * Con {@code reWriteBatchedInserts} el driver envía cada lote como INSERT multi-fila,
+     * por lo que se hace un viaje de red por lote en lugar de uno por tarjeta.
+     * Si alguna tarjeta no se puede guardar se deshace toda la operación.
+     *
+     * @param bankCards Las tarjetas a guardar.
+     * @return Un {@code CompletableFuture} con las tarjetas guardadas, o que falla si hay un error.
+     */
+    @Override
+    public CompletableFuture<List<BankCard>> saveAll(List<BankCard> bankCards) {
+        String query = "INSERT INTO BankCards (number, clientId, expirationDate, createdAt, updatedAt) VALUES (?, ?, ?, ?, ?)";
+        logger.debug("Guardando {} tarjetas de crédito por lotes", bankCards.size());
+
+        return CompletableFuture.supplyAsync(() -> {
+            if (bankCards.isEmpty()) {
+                return bankCards;
+            }
+            try (var connection = writeConnection()) {
+                connection.setAutoCommit(false);
+                try (var stmt = connection.prepareStatement(query)) {
+                    int pending = 0;
+                    for (BankCard bankCard : bankCards) {
+                        stmt.setString(1, bankCard.getNumber());
+                        stmt.setObject(2, bankCard.getClientId());
+                        stmt.setObject(3, bankCard.getExpirationDate());
+                        stmt.setObject(4, bankCard.getCreatedAt() != null ? bankCard.getCreatedAt() : LocalDateTime.now());
+                        stmt.setObject(5, bankCard.getUpdatedAt() != null ? bankCard.getUpdatedAt() : LocalDateTime.now());
+                        stmt.addBatch();
+                        if (++pending == SAVE_BATCH_SIZE) {
+                            stmt.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                    if (pending > 0) {
+                        stmt.executeBatch();
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.error("Error al guardar las tarjetas de crédito por lotes", e);
+                throw new CompletionException(e);
+            }
+            return bankCards;
+        }, executor);
+    }
+
+    /**
+     * Carga masiva de tarjetas con {@code COPY FROM STDIN}.
+     * Las tarjetas se copian en una tabla temporal y después se fusionan con {@code BankCards}
+     * mediante {@code INSERT ... ON CONFLICT (number) DO UPDATE} ({@code (clientId, number)} con la tabla
+     * particionada), de modo que una tarjeta
+     * ya existente se actualiza en lugar de abortar la carga. Si el mismo número aparece
+     * varias veces en la entrada se conserva el de {@code updatedAt} más reciente.
+     * Con la tabla particionada, una tarjeta que pasa a otro cliente se borra antes de la fusión,
+     * ya que su número solo puede pertenecer a un cliente; así se reasigna igual que sin particionar.
+     * El flujo se consume en el hilo de la consulta, sin cargarlo entero en memoria.
+     *
+     * @param bankCards Flujo de tarjetas a cargar, por ejemplo el de {@code CardStorageCsv.importFile}.
+     * @return Un {@code CompletableFuture} con el número de tarjetas insertadas o actualizadas.
+     */
+    @Override
+    public CompletableFuture<Long> bulkLoad(Flux<BankCard> bankCards) {
+        String createStaging = "CREATE TEMP TABLE BankCardsStaging (number VARCHAR(255), clientId BIGINT, expirationDate DATE, " +
+                "createdAt TIMESTAMP, updatedAt TIMESTAMP) ON COMMIT DROP";
+        String copy = "COPY BankCardsStaging (number, clientId, expirationDate, createdAt, updatedAt) FROM STDIN WITH (FORMAT csv)";
+        // La tarjeta cambia de partición: se borra la del cliente anterior y la fusión la inserta en la nueva
+        String moveToNewClient = "DELETE FROM BankCards b USING (" +
+                "SELECT DISTINCT ON (number) number, clientId FROM BankCardsStaging " +
+                "ORDER BY number, updatedAt DESC NULLS LAST) s " +
+                "WHERE b.number = s.number AND b.clientId <> s.clientId";
+        String merge = "INSERT INTO BankCards (number, clientId, expirationDate, createdAt, updatedAt) " +
+                "SELECT DISTINCT ON (number) number, clientId, expirationDate, " +
+                "COALESCE(createdAt, CURRENT_TIMESTAMP), COALESCE(updatedAt, CURRENT_TIMESTAMP) " +
+                "FROM BankCardsStaging ORDER BY number, updatedAt DESC NULLS LAST " +
+                // Con la tabla particionada la clave primaria incluye el cliente
+                (db.isPartitioned()
+                        ? "ON CONFLICT (clientId, number) DO UPDATE SET "
+                        : "ON CONFLICT (number) DO UPDATE SET clientId = EXCLUDED.clientId, ") +
+                "expirationDate = EXCLUDED.expirationDate, updatedAt = EXCLUDED.updatedAt";
+        logger.debug("Iniciando la carga masiva de tarjetas de crédito");
+
+        return CompletableFuture.supplyAsync(() -> {
+            try (var connection = writeConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    try (var stmt = connection.createStatement()) {
+                        stmt.execute(createStaging);
+                    }
+
+                    CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(copy);
+                    long copied;
+                    try {
+                        StringBuilder rows = new StringBuilder();
+                        for (List<BankCard> chunk : bankCards.buffer(COPY_BUFFER_SIZE).toIterable()) {
+                            rows.setLength(0);
+                            for (BankCard bankCard : chunk) {
+                                appendCsvRow(rows, bankCard);
+                            }
+                            byte[] bytes = rows.toString().getBytes(StandardCharsets.UTF_8);
+                            copyIn.writeToCopy(bytes, 0, bytes.length);
+                        }
+                        copied = copyIn.endCopy();
+                    } finally {
+                        if (copyIn.isActive()) {
+                            copyIn.cancelCopy();
+                        }
+                    }
+
+                    if (db.isPartitioned()) {
+                        try (var stmt = connection.createStatement()) {
+                            stmt.executeUpdate(moveToNewClient);
+                        }
+                    }
+                    long merged;
+                    try (var stmt = connection.prepareStatement(merge)) {
+                        merged = stmt.executeUpdate();
+                    }
+                    connection.commit();
+                    logger.debug("Carga masiva completada: {} filas copiadas, {} tarjetas fusionadas", copied, merged);
+                    return merged;
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            } catch (SQLException e) {
+                logger.error("Error en la carga masiva de tarjetas de crédito", e);
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Recorre todas las tarjetas con el fetch size configurado en el gestor de base de datos.
+     *
+     * @return Un {@code Flux} con todas las tarjetas ordenadas por número.
+     */
+    public Flux<BankCard> streamAll() {
+        return streamAll(db.getFetchSize());
+    }
+
+    /**
+     * Recorre todas las tarjetas con un cursor del servidor.
+     * pgJDBC solo usa cursor si la conexión no está en autocommit y el fetch size es mayor que cero;
+     * en otro caso carga todo el resultado en memoria antes de devolver la primera fila.
+     * Las filas se emiten según las pide el suscriptor, así que como mucho hay {@code fetchSize}
+     * tarjetas en memoria. La conexión se devuelve al pool al completar, fallar o cancelar.
+     *
+     * @param fetchSize Número de filas que se traen del servidor en cada viaje.
+     * @return Un {@code Flux} con todas las tarjetas ordenadas por número.
+     */
+    @Override
+    public Flux<BankCard> streamAll(int fetchSize) {
+        if (fetchSize <= 0) {
+            throw new IllegalArgumentException("El fetch size debe ser mayor que cero: " + fetchSize);
+        }
+        String query = SELECT_CARDS + " ORDER BY number";
+        logger.debug("Recorriendo las tarjetas de crédito con un cursor de {} filas", fetchSize);
+        return streamQuery(query, fetchSize);
+    }
+
+    /**
+     * Recorre con un cursor del servidor las tarjetas que caducan entre dos fechas, ambas incluidas.
+     * El rango se filtra en SQL sobre {@code expirationDate}, que tiene índice, así que solo se lee
+     * ese tramo de la tabla.
+     *
+     * @param from Primera fecha de caducidad incluida.
+     * @param to Última fecha de caducidad incluida.
+     * @return Un {@code Flux} con las tarjetas ordenadas por fecha de caducidad y número.
+     */
+    @Override
+    public Flux<BankCard> streamExpiringBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Las fechas del rango no pueden ser nulas");
+        }
+        String query = SELECT_CARDS +
+                " WHERE expirationDate BETWEEN ? AND ? ORDER BY expirationDate, number";
+        logger.debug("Recorriendo las tarjetas de crédito que caducan entre {} y {}", from, to);
+        return streamQuery(query, db.getFetchSize(), from, to);
+    }
+
+    /**
+     * Emite las filas de una consulta a medida que el suscriptor las pide, leyéndolas con un cursor del servidor
+     */
+    private Flux<BankCard> streamQuery(String query, int fetchSize, Object... params) {
+        return Flux.<BankCard, CursorState>generate(() -> CursorState.open(readConnection(), query, fetchSize, params),
+                        (state, sink) -> {
+                            try {
+                                if (state.resultSet.next()) {
+                                    sink.next(BankCardRowMapper.INSTANCE.mapRow(state.resultSet));
+                                } else {
+                                    sink.complete();
+                                }
+                            } catch (SQLException e) {
+                                logger.error("Error al recorrer las tarjetas de crédito", e);
+                                sink.error(e);
+                            }
+                            return state;
+                        },
+                        CursorState::close)
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Devuelve una página de tarjetas ordenadas por número, empezando tras {@code afterNumber}.
+     * Se usa un predicado sobre la clave primaria en lugar de OFFSET, así que el coste de cada
+     * página es el mismo a cualquier profundidad. Se pide una fila de más para saber si hay página siguiente.
+     *
+     * @param afterNumber Último número de la página anterior, o {@code null} para la primera página.
+     * @param limit Número máximo de tarjetas de la página.
+     * @return Un {@code CompletableFuture} con la página y el cursor de la siguiente.
+     */
+    @Override
+    public CompletableFuture<Page<BankCard>> findPage(String afterNumber, int limit) {
+        String columns = SELECT_CARDS;
+        String query = afterNumber == null
+                ? columns + " ORDER BY number LIMIT ?"
+                : columns + " WHERE number > ? ORDER BY number LIMIT ?";
+        logger.debug("Buscando la página de {} tarjetas de crédito tras: {}", limit, afterNumber);
+        return queryPage(query, limit, afterNumber);
+    }
+
+    /**
+     * Devuelve una página de las tarjetas de un cliente ordenadas por número, empezando tras {@code afterNumber}.
+     *
+     * @param clientId El id del cliente.
+     * @param afterNumber Último número de la página anterior, o {@code null} para la primera página.
+     * @param limit Número máximo de tarjetas de la página.
+     * @return Un {@code CompletableFuture} con la página y el cursor de la siguiente.
+     */
+    @Override
+    public CompletableFuture<Page<BankCard>> findPageByClient(Long clientId, String afterNumber, int limit) {
+        if (clientId == null) {
+            throw new IllegalArgumentException("El id del cliente no puede ser nulo");
+        }
+        String columns = SELECT_CARDS + " WHERE clientId = ?";
+        String query = afterNumber == null
+                ? columns + " ORDER BY number LIMIT ?"
+                : columns + " AND number > ? ORDER BY number LIMIT ?";
+        logger.debug("Buscando la página de {} tarjetas de crédito del cliente {} tras: {}", limit, clientId, afterNumber);
+        return queryPage(query, limit, clientId, afterNumber);
+    }
+
+    /**
+     * Ejecuta una consulta paginada. Los parámetros nulos se omiten y el límite se añade el último.
+     */
+    private CompletableFuture<Page<BankCard>> queryPage(String query, int limit, Object... params) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero: " + limit);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            List<BankCard> items = new ArrayList<>(limit + 1);
+            try (var connection = readConnection();
+                 var stmt = connection.prepareStatement(query)) {
+                int index = 1;
+                for (Object param : params) {
+                    if (param != null) {
+                        stmt.setObject(index++, param);
+                    }
+                }
+                stmt.setInt(index, limit + 1);
+                try (var rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        items.add(BankCardRowMapper.INSTANCE.mapRow(rs));
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error al buscar la página de tarjetas de crédito", e);
+                throw new CompletionException(e);
+            }
+
+            if (items.size() <= limit) {
+                return new Page<>(items, null);
+            }
+            items.remove(limit);
+            return new Page<>(items, new PageCursor(items.get(limit - 1).getNumber(), limit));
+        }, executor);
+    }
+
+    /**
+     * Conexión, sentencia y cursor abiertos mientras dura un recorrido de {@link #streamQuery}
+     */
+    private static class CursorState {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+
+        private CursorState(Connection connection, PreparedStatement statement, ResultSet resultSet) {
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+        }
+
+        private static CursorState open(Connection connection, String query, int fetchSize, Object... params) throws SQLException {
+            try {
+                connection.setAutoCommit(false);
+                PreparedStatement statement = connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                for (int i = 0; i < params.length; i++) {
+                    statement.setObject(i + 1, params[i]);
+                }
+                return new CursorState(connection, statement, statement.executeQuery());
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        private void close() {
+            try (connection; statement; resultSet) {
+                // El cursor solo se ha leído: se termina la transacción sin cambios antes de devolver la conexión
+                connection.rollback();
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                LoggerFactory.getLogger(BankCardRepositoryImpl.class).warn("Error al cerrar el cursor de tarjetas", e);
+            }
+        }
+    }
+
+    /**
+     * Añade una tarjeta como línea CSV en el formato que espera {@code COPY ... WITH (FORMAT csv)}.
+     * Los valores nulos se dejan vacíos y sin comillas, que COPY interpreta como NULL.
+     */
+    private void appendCsvRow(StringBuilder rows, BankCard bankCard) {
+        appendCsvField(rows, bankCard.getNumber()).append(',');
+        appendCsvField(rows, bankCard.getClientId()).append(',');
+        appendCsvField(rows, bankCard.getExpirationDate()).append(',');
+        appendCsvField(rows, bankCard.getCreatedAt()).append(',');
+        appendCsvField(rows, bankCard.getUpdatedAt()).append('\n');
+    }
+
+    private StringBuilder appendCsvField(StringBuilder rows, Object value) {
+        if (value == null) {
+            return rows;
+        }
+        return rows.append('"').append(value.toString().replace("\"", "\"\"")).append('"');
+    }
+}
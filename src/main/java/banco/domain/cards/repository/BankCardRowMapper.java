@@ -0,0 +1,47 @@
+package banco.domain.cards.repository;
+
+import banco.domain.cards.model.BankCard;
+import banco.util.jdbc.Projection;
+import banco.util.jdbc.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Convierte filas de {@code BankCards} de la base de datos remota leyendo las columnas por posición
+ */
+public class BankCardRowMapper implements RowMapper<BankCard> {
+    public static final Projection COLUMNS = Projection.of("number", "clientId", "expirationDate", "createdAt", "updatedAt");
+    public static final BankCardRowMapper INSTANCE = new BankCardRowMapper(0);
+
+    private final int number;
+    private final int clientId;
+    private final int expirationDate;
+    private final int createdAt;
+    private final int updatedAt;
+
+    /**
+     * @param offset número de columnas que preceden a {@link #COLUMNS} en la consulta
+     */
+    public BankCardRowMapper(int offset) {
+        this.number = offset + 1;
+        this.clientId = offset + 2;
+        this.expirationDate = offset + 3;
+        this.createdAt = offset + 4;
+        this.updatedAt = offset + 5;
+    }
+
+    @Override
+    public BankCard mapRow(ResultSet rs) throws SQLException {
+        // clientId es NOT NULL, así que se lee como primitivo sin comprobar wasNull
+        return new BankCard(
+                rs.getString(number),
+                rs.getLong(clientId),
+                rs.getObject(expirationDate, LocalDate.class),
+                rs.getObject(createdAt, LocalDateTime.class),
+                rs.getObject(updatedAt, LocalDateTime.class)
+        );
+    }
+}
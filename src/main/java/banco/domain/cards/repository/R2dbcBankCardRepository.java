@@ -0,0 +1,198 @@
+package banco.domain.cards.repository;
+
+import banco.data.remote.RemoteDatabaseManager;
+import banco.domain.cards.exceptions.BankCardNotFoundException;
+import banco.domain.cards.exceptions.BankCardNotSavedException;
+import banco.domain.cards.model.BankCard;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.Statement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Implementación de {@link ReactiveBankCardRepository} sobre R2DBC PostgreSQL.
+ * A diferencia de {@link BankCardRepositoryImpl}, ninguna consulta ocupa un hilo mientras espera:
+ * miles de consultas pueden estar en curso sobre los pocos hilos del event loop del driver,
+ * limitadas solo por el tamaño del pool de conexiones.
+ * No implementa {@link BankCardRepository}: solo cubre las operaciones de {@link ReactiveBankCardRepository}
+ * y siempre usa el primario. No hay variantes por {@code (clientId, number)} para la tabla particionada,
+ * ni reparto de lecturas entre réplicas, ni {@code withSession}.
+ */
+public class R2dbcBankCardRepository implements ReactiveBankCardRepository {
+    private static final String SELECT_CARDS = "SELECT " + BankCardRowMapper.COLUMNS.select() + " FROM BankCards";
+
+    private final Logger logger = LoggerFactory.getLogger(R2dbcBankCardRepository.class);
+    private final ConnectionFactory connectionFactory;
+    private static R2dbcBankCardRepository instance;
+
+    /**
+     * Constructor para la clase {@code R2dbcBankCardRepository}.
+     *
+     * @param connectionFactory La factoría de conexiones reactivas, normalmente con pool.
+     */
+    public R2dbcBankCardRepository(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * Devuelve una instancia única de {@code R2dbcBankCardRepository} utilizando el patrón Singleton.
+     *
+     * @param db El gestor de base de datos remota, del que se toma el pool R2DBC.
+     * @return La instancia única de {@code R2dbcBankCardRepository}.
+     */
+    public static synchronized R2dbcBankCardRepository getInstance(RemoteDatabaseManager db) {
+        if (instance == null) {
+            instance = new R2dbcBankCardRepository(db.getReactiveConnectionFactory());
+        }
+        return instance;
+    }
+
+    /**
+     * Busca todas las tarjetas de crédito en la base de datos.
+     *
+     * @return Un {@code Flux} con todas las tarjetas.
+     */
+    @Override
+    public Flux<BankCard> findAll() {
+        logger.debug("Buscando todas las tarjetas de crédito en la base de datos");
+        return query(SELECT_CARDS, stmt -> stmt);
+    }
+
+    /**
+     * Busca una tarjeta de crédito por su número.
+     *
+     * @param number El número de la tarjeta de crédito a buscar.
+     * @return Un {@code Mono} con la tarjeta, o vacío si no existe.
+     */
+    @Override
+    public Mono<BankCard> findById(String number) {
+        logger.debug("Buscando la tarjeta de crédito con número: {}", number);
+        return query(SELECT_CARDS + " WHERE number = $1", stmt -> stmt.bind(0, number)).next();
+    }
+
+    /**
+     * Guarda una nueva tarjeta de crédito en la base de datos.
+     *
+     * @param bankCard La tarjeta de crédito a guardar.
+     * @return Un {@code Mono} con la tarjeta guardada, o con error si no se guarda.
+     */
+    @Override
+    public Mono<BankCard> save(BankCard bankCard) {
+        logger.debug("Guardando la tarjeta de crédito: {}", bankCard);
+        String sql = "INSERT INTO BankCards (number, clientId, expirationDate, createdAt, updatedAt) VALUES ($1, $2, $3, $4, $5)";
+        return update(sql, stmt -> stmt
+                .bind(0, bankCard.getNumber())
+                .bind(1, bankCard.getClientId())
+                .bind(2, bankCard.getExpirationDate())
+                .bind(3, bankCard.getCreatedAt() != null ? bankCard.getCreatedAt() : LocalDateTime.now())
+                .bind(4, bankCard.getUpdatedAt() != null ? bankCard.getUpdatedAt() : LocalDateTime.now()))
+                .flatMap(rows -> rows > 0
+                        ? Mono.just(bankCard)
+                        : Mono.error(new BankCardNotSavedException("Tarjeta de crédito no guardada con id: " + bankCard.getNumber())))
+                .doOnError(e -> logger.error("Error al guardar la tarjeta de crédito", e));
+    }
+
+    /**
+     * Actualiza la fecha de caducidad de una tarjeta de crédito existente.
+     *
+     * @param number El número de la tarjeta a actualizar.
+     * @param bankCard La tarjeta de crédito con los nuevos datos.
+     * @return Un {@code Mono} con la tarjeta actualizada, o con {@link BankCardNotFoundException} si no existe.
+     */
+    @Override
+    public Mono<BankCard> update(String number, BankCard bankCard) {
+        logger.debug("Actualizando la tarjeta de crédito con número: {}", number);
+        String sql = "UPDATE BankCards SET expirationDate = $1, updatedAt = $2 WHERE number = $3";
+        return update(sql, stmt -> stmt
+                .bind(0, bankCard.getExpirationDate())
+                .bind(1, LocalDateTime.now())
+                .bind(2, bankCard.getNumber()))
+                .flatMap(rows -> rows > 0
+                        ? Mono.just(bankCard)
+                        : Mono.error(new BankCardNotFoundException("Tarjeta de crédito no encontrada con id: " + number)));
+    }
+
+    /**
+     * Elimina una tarjeta de crédito por su número.
+     *
+     * @param number El número de la tarjeta de crédito a eliminar.
+     * @return Un {@code Mono} con {@code true} si se eliminó, o {@code false} si no se encontró.
+     */
+    @Override
+    public Mono<Boolean> delete(String number) {
+        logger.debug("Eliminando la tarjeta de crédito con número: {}", number);
+        return update("DELETE FROM BankCards WHERE number = $1", stmt -> stmt.bind(0, number))
+                .map(rows -> rows > 0);
+    }
+
+    /**
+     * Busca todas las tarjetas de crédito asociadas a un cliente.
+     *
+     * @param clientId El id del cliente.
+     * @return Un {@code Flux} con las tarjetas del cliente ordenadas por número.
+     */
+    @Override
+    public Flux<BankCard> getBankCardsByClientId(Long clientId) {
+        logger.debug("Buscando las tarjetas de crédito del cliente: {}", clientId);
+        return query(SELECT_CARDS + " WHERE clientId = $1 ORDER BY number", stmt -> stmt.bind(0, clientId));
+    }
+
+    /**
+     * Recorre las tarjetas que caducan entre dos fechas, ambas incluidas.
+     * El driver emite las filas según las pide el suscriptor, sin cargar el resultado entero.
+     *
+     * @param from Primera fecha de caducidad incluida.
+     * @param to Última fecha de caducidad incluida.
+     * @return Un {@code Flux} con las tarjetas ordenadas por fecha de caducidad y número.
+     */
+    @Override
+    public Flux<BankCard> streamExpiringBetween(LocalDate from, LocalDate to) {
+        logger.debug("Recorriendo las tarjetas de crédito que caducan entre {} y {}", from, to);
+        return query(SELECT_CARDS + " WHERE expirationDate BETWEEN $1 AND $2 ORDER BY expirationDate, number",
+                stmt -> stmt.bind(0, from).bind(1, to));
+    }
+
+    /**
+     * Ejecuta una consulta y convierte sus filas. La conexión se devuelve al pool al completar, fallar o cancelar.
+     */
+    private Flux<BankCard> query(String sql, Function<Statement, Statement> binder) {
+        return Flux.usingWhen(
+                connectionFactory.create(),
+                conn -> Flux.from(binder.apply(conn.createStatement(sql)).execute())
+                        .flatMap(result -> result.map((row, metadata) -> mapRow(row))),
+                Connection::close);
+    }
+
+    /**
+     * Ejecuta una sentencia de escritura y devuelve el número de filas afectadas
+     */
+    private Mono<Long> update(String sql, Function<Statement, Statement> binder) {
+        return Mono.usingWhen(
+                connectionFactory.create(),
+                conn -> Flux.from(binder.apply(conn.createStatement(sql)).execute())
+                        .flatMap(result -> result.getRowsUpdated())
+                        .reduce(0L, Long::sum),
+                Connection::close);
+    }
+
+    /**
+     * Convierte una fila leyendo por posición en el orden de {@link BankCardRowMapper#COLUMNS}
+     */
+    private BankCard mapRow(Row row) {
+        return new BankCard(
+                row.get(0, String.class),
+                row.get(1, Long.class),
+                row.get(2, LocalDate.class),
+                row.get(3, LocalDateTime.class),
+                row.get(4, LocalDateTime.class)
+        );
+    }
+}
@@ -0,0 +1,27 @@
+package banco.domain.cards.repository;
+
+import banco.domain.cards.model.BankCard;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+
+/**
+ * Variante reactiva de {@link BankCardRepository}: cada operación devuelve un {@link Mono} o un {@link Flux}
+ * que no bloquea ningún hilo mientras espera a la base de datos.
+ */
+public interface ReactiveBankCardRepository {
+    public Flux<BankCard> findAll();
+
+    public Mono<BankCard> findById(String number);
+
+    public Mono<BankCard> save(BankCard bankCard);
+
+    public Mono<BankCard> update(String number, BankCard bankCard);
+
+    public Mono<Boolean> delete(String number);
+
+    public Flux<BankCard> getBankCardsByClientId(Long clientId);
+
+    public Flux<BankCard> streamExpiringBetween(LocalDate from, LocalDate to);
+}
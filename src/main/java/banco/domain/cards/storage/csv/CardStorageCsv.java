@@ -26,7 +26,7 @@ public class CardStorageCsv implements Storage<BankCard> {
         return Flux.using(
                         () -> Files.newBufferedReader(file.toPath(), StandardCharsets.ISO_8859_1),
                         reader -> Flux.fromStream(reader.lines().skip(1)) // Skip header
-                                .doOnNext(line -> logger.info("Processing line: " + line))
+                                .doOnNext(line -> logger.debug("Processing line: {}", line))
                                 .map(line -> {
                                     String[] fields = line.split(",");
                                     BankCard card = new BankCard(
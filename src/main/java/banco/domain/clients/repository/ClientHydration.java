@@ -0,0 +1,15 @@
+package banco.domain.clients.repository;
+
+/**
+ * Indica qué datos se cargan al recuperar clientes del repositorio local.
+ */
+public enum ClientHydration {
+    /**
+     * Solo los datos del cliente, sin tarjetas
+     */
+    CLIENTS_ONLY,
+    /**
+     * El cliente junto a sus tarjetas, cargadas con un único LEFT JOIN
+     */
+    WITH_CARDS
+}
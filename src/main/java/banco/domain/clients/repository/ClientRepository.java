@@ -2,12 +2,35 @@ package banco.domain.clients.repository;
 
 import banco.domain.cards.model.BankCard;
 import banco.domain.clients.model.Client;
+import reactor.core.publisher.Flux;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 
 public interface ClientRepository extends Repository<Long, Client> {
 
+    public CompletableFuture<List<Client>> findAll(ClientHydration hydration);
+
+    public CompletableFuture<Client> findById(Long id, ClientHydration hydration);
+
+    public CompletableFuture<Client> findByUsername(String username, ClientHydration hydration);
+
+    public CompletableFuture<Client> findByEmail(String email, ClientHydration hydration);
+
+    public CompletableFuture<Map<Long, Client>> findByIds(Collection<Long> ids, ClientHydration hydration);
+
+    public Flux<Client> streamAll(int pageSize, ClientHydration hydration);
+
+    public Flux<BankCard> streamCardsExpiringBetween(LocalDate from, LocalDate to);
+
+    public CompletableFuture<Client> insert(Client client);
+
+    public CompletableFuture<List<Client>> saveAll(List<Client> clients);
+
     public CompletableFuture<BankCard> saveBankCard(BankCard bankCard);
 
     public CompletableFuture<Void> updateBankCard(String number, BankCard bankCard);
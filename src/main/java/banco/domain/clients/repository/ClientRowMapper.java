@@ -0,0 +1,57 @@
+package banco.domain.clients.repository;
+
+import banco.domain.clients.model.Client;
+import banco.util.jdbc.Projection;
+import banco.util.jdbc.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+
+/**
+ * Convierte filas de {@code clients} de la base de datos local leyendo las columnas por posición.
+ * El cliente se crea con una lista de tarjetas vacía y modificable.
+ */
+public class ClientRowMapper implements RowMapper<Client> {
+    public static final Projection COLUMNS = Projection.of("id", "name", "username", "email", "created_at", "updated_at");
+    public static final ClientRowMapper INSTANCE = new ClientRowMapper(0);
+
+    private final int id;
+    private final int name;
+    private final int username;
+    private final int email;
+    private final int createdAt;
+    private final int updatedAt;
+
+    /**
+     * @param offset número de columnas que preceden a {@link #COLUMNS} en la consulta
+     */
+    public ClientRowMapper(int offset) {
+        this.id = offset + 1;
+        this.name = offset + 2;
+        this.username = offset + 3;
+        this.email = offset + 4;
+        this.createdAt = offset + 5;
+        this.updatedAt = offset + 6;
+    }
+
+    /**
+     * Lee solo el id, para agrupar las filas de un JOIN sin crear un cliente por fila
+     */
+    public long readId(ResultSet rs) throws SQLException {
+        return rs.getLong(id);
+    }
+
+    @Override
+    public Client mapRow(ResultSet rs) throws SQLException {
+        return new Client(
+                rs.getLong(id),
+                rs.getString(name),
+                rs.getString(username),
+                rs.getString(email),
+                new ArrayList<>(),
+                rs.getTimestamp(createdAt).toLocalDateTime(),
+                rs.getTimestamp(updatedAt).toLocalDateTime()
+        );
+    }
+}
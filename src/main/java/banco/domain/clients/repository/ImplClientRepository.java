@@ -1,18 +1,24 @@
 package banco.domain.clients.repository;
 
+import banco.data.local.GroupCommitWriter;
 import banco.data.local.LocalDatabaseManager;
 import banco.domain.cards.model.BankCard;
 import banco.domain.clients.model.Client;
+import banco.util.executor.ExecutorStrategy;
+import banco.util.jdbc.RowMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
 import java.sql.*;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.sql.Date;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.CompletionException;
 
 /**
  * Implementación del repositorio local de clientes
@@ -26,12 +32,41 @@ public class ImplClientRepository implements ClientRepository {
     private final LocalDatabaseManager localDatabase;
 
 
-    private final ExecutorService executorService = Executors.newCachedThreadPool();
+    public static final int DEFAULT_REFRESH_CHUNK_SIZE = 1000;
+    public static final int DEFAULT_STREAM_PAGE_SIZE = 500;
+    // Por debajo del límite clásico de SQLITE_MAX_VARIABLE_NUMBER (999)
+    private static final int MAX_IDS_PER_QUERY = 500;
+    private static final String SELECT_CARDS = "SELECT " + LocalBankCardRowMapper.COLUMNS.select() + " FROM bank_cards";
+    /**
+     * Tarjetas en las consultas con JOIN, cuyas columnas van detrás de las del cliente
+     */
+    private static final LocalBankCardRowMapper JOINED_CARD_MAPPER = new LocalBankCardRowMapper(ClientRowMapper.COLUMNS.size());
+
+    private final ExecutorStrategy executor;
+    private final Scheduler scheduler;
 
 
+    /**
+     * Devuelve la instancia única usando un pool de hilos del mismo tamaño que el pool de conexiones
+     * @param local el manejador de la base de datos local
+     * @return la instancia del repositorio
+     */
     public static synchronized ImplClientRepository getInstance(LocalDatabaseManager local) {
         if (instance == null) {
-            instance = new ImplClientRepository(local);
+            instance = new ImplClientRepository(local, ExecutorStrategy.bounded("local-clients", local.getMaxPoolSize()));
+        }
+        return instance;
+    }
+
+    /**
+     * Devuelve la instancia única con la estrategia de ejecución indicada
+     * @param local el manejador de la base de datos local
+     * @param executor la estrategia con la que se ejecutan las consultas
+     * @return la instancia del repositorio
+     */
+    public static synchronized ImplClientRepository getInstance(LocalDatabaseManager local, ExecutorStrategy executor) {
+        if (instance == null) {
+            instance = new ImplClientRepository(local, executor);
         }
         return instance;
     }
@@ -39,147 +74,329 @@ public class ImplClientRepository implements ClientRepository {
     /**
      * Constructor privado
      * @param localDatabase el manejador de la base de datos local
+     * @param executor la estrategia con la que se ejecutan las consultas
      */
-    private ImplClientRepository(LocalDatabaseManager localDatabase) {
+    private ImplClientRepository(LocalDatabaseManager localDatabase, ExecutorStrategy executor) {
         this.localDatabase = localDatabase;
+        this.executor = executor;
+        this.scheduler = Schedulers.fromExecutor(executor);
+    }
+
+    public ExecutorStrategy getExecutor() {
+        return executor;
     }
 
 
     /**
-     * Busca todos los clientes en la base de datos local.
+     * Busca todos los clientes en la base de datos local junto a sus tarjetas.
      *
      * @return CompletableFuture de una liste de clientes
      * o una lista vacia si no hay nada
      */
     @Override
     public CompletableFuture<List<Client>> findAll() {
-        logger.debug("Buscando todos los clientes");
-        String sql = "SELECT id, name, username, email, created_at, updated_at FROM clients";
+        return findAll(ClientHydration.WITH_CARDS);
+    }
+
+    /**
+     * Busca todos los clientes en la base de datos local.
+     *
+     * @param hydration indica si se cargan también las tarjetas de cada cliente
+     * @return CompletableFuture de una liste de clientes
+     * o una lista vacia si no hay nada
+     */
+    @Override
+    public CompletableFuture<List<Client>> findAll(ClientHydration hydration) {
+        logger.debug("Buscando todos los clientes ({})", hydration);
+        String sql = selectClients(hydration) + " ORDER BY c.id" + cardsOrder(hydration);
 
         return CompletableFuture.supplyAsync(() -> {
-            List<Client> clients = new ArrayList<>();
-
-            try (Connection conn = localDatabase.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(sql);
-                 ResultSet rs = stmt.executeQuery()) {
-
-                while (rs.next()) {
-                    Long clientId = rs.getLong("id");
-
-                    Client client = new Client(
-                            clientId,
-                            rs.getString("name"),
-                            rs.getString("username"),
-                            rs.getString("email"),
-                            new ArrayList<>(),
-                            rs.getTimestamp("created_at").toLocalDateTime(),
-                            rs.getTimestamp("updated_at").toLocalDateTime()
-                    );
-                    List<BankCard> cards = findAllCardsByClientId(clientId);
-                    client.setCards(cards);
-                    clients.add(client);
-                }
+            try (Connection conn = localDatabase.getReadConnection();
+                 ResultSet rs = localDatabase.prepareCached(conn, sql).executeQuery()) {
+                return readClients(rs, hydration);
             } catch (SQLException e) {
                 logger.error("Error al buscar todos los clientes", e);
             }
-            return clients;
-        }, executorService);
+            return new ArrayList<>();
+        }, executor);
     }
 
     /**
-     * Busca un cliente por su id en la base de datos local.
+     * Busca un cliente por su id en la base de datos local junto a sus tarjetas.
      *
      * @param id el id del cliente a buscar
      * @return CompletableFuture de un cliente
      * o null si no se encuentra
      */
+    @Override
     public CompletableFuture<Client> findById(Long id) {
-        logger.debug("Buscando cliente con id: {}", id);
-        String query = "SELECT * FROM clients WHERE id =?";
+        return findById(id, ClientHydration.WITH_CARDS);
+    }
+
+    /**
+     * Busca un cliente por su id en la base de datos local.
+     *
+     * @param id el id del cliente a buscar
+     * @param hydration indica si se cargan también sus tarjetas
+     * @return CompletableFuture de un cliente
+     * o null si no se encuentra
+     */
+    @Override
+    public CompletableFuture<Client> findById(Long id, ClientHydration hydration) {
+        logger.debug("Buscando cliente con id: {} ({})", id, hydration);
+        String query = selectClients(hydration) + " WHERE c.id = ?" + (hydration == ClientHydration.WITH_CARDS ? " ORDER BY b.number" : "");
         return CompletableFuture.supplyAsync(() -> {
-            try (Connection conn = localDatabase.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
+            try (Connection conn = localDatabase.getReadConnection()) {
+                PreparedStatement stmt = localDatabase.prepareCached(conn, query);
                 stmt.setLong(1, id);
-                ResultSet rs = stmt.executeQuery();
-
-                if (rs.next()) {
-                    Client client = new Client(
-                            rs.getLong("id"),
-                            rs.getString("name"),
-                            rs.getString("username"),
-                            rs.getString("email"),
-                            new ArrayList<>(),
-                            rs.getTimestamp("created_at").toLocalDateTime(),
-                            rs.getTimestamp("updated_at").toLocalDateTime()
-                    );
-
-                    List<BankCard> cards = findAllCardsByClientId(id);
-                    client.setCards(cards);
-                    return client;
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Client> clients = readClients(rs, hydration);
+                    if (!clients.isEmpty()) {
+                        return clients.get(0);
+                    }
                 }
             } catch (SQLException e) {
-                e.printStackTrace();
+                logger.error("Error al buscar cliente con id: {}", id, e);
             }
             return null;
-        });
+        }, executor);
     }
 
     /**
-     * Guarda un cliente en la base de datos local.
-     * @param client el cliente a guardar
+     * Busca un cliente por su username usando su índice único.
+     *
+     * @param username el username del cliente
+     * @param hydration indica si se cargan también sus tarjetas
      * @return CompletableFuture de un cliente
+     * o null si no se encuentra
      */
     @Override
-    public CompletableFuture<Client> save(Client client) {
-        logger.debug("Guardando cliente: {}", client);
-        return CompletableFuture.supplyAsync(() -> {
-            String clientSql = "INSERT INTO clients (name, username, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?) RETURNING id";
-            Long clientId = null;
+    public CompletableFuture<Client> findByUsername(String username, ClientHydration hydration) {
+        logger.debug("Buscando cliente con username: {}", username);
+        return findOneBy("username", username, hydration);
+    }
 
-            try (Connection conn = localDatabase.getConnection()) {
-                conn.setAutoCommit(false);
+    /**
+     * Busca un cliente por su email usando su índice único.
+     *
+     * @param email el email del cliente
+     * @param hydration indica si se cargan también sus tarjetas
+     * @return CompletableFuture de un cliente
+     * o null si no se encuentra
+     */
+    @Override
+    public CompletableFuture<Client> findByEmail(String email, ClientHydration hydration) {
+        logger.debug("Buscando cliente con email: {}", email);
+        return findOneBy("email", email, hydration);
+    }
+
+    /**
+     * Busca un cliente por una columna con índice único
+     * @param column la columna, siempre una constante interna
+     * @param value el valor buscado
+     * @param hydration indica si se cargan también sus tarjetas
+     * @return CompletableFuture de un cliente o null si no se encuentra
+     */
+    private CompletableFuture<Client> findOneBy(String column, String value, ClientHydration hydration) {
+        String query = selectClients(hydration) + " WHERE c." + column + " = ?" + (hydration == ClientHydration.WITH_CARDS ? " ORDER BY b.number" : "");
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = localDatabase.getReadConnection()) {
+                PreparedStatement stmt = localDatabase.prepareCached(conn, query);
+                stmt.setString(1, value);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    List<Client> clients = readClients(rs, hydration);
+                    if (!clients.isEmpty()) {
+                        return clients.get(0);
+                    }
+                }
+            } catch (SQLException e) {
+                logger.error("Error al buscar cliente por {}: {}", column, value, e);
+            }
+            return null;
+        }, executor);
+    }
 
-                try (PreparedStatement clientStmt = conn.prepareStatement(clientSql)) {
-                    clientStmt.setString(1, client.getName());
-                    clientStmt.setString(2, client.getUsername());
-                    clientStmt.setString(3, client.getEmail());
-                    clientStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-                    clientStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+    /**
+     * Busca varios clientes por id junto a sus tarjetas.
+     *
+     * @param ids los ids a buscar
+     * @return CompletableFuture con un mapa id -> cliente que solo contiene los encontrados
+     */
+    public CompletableFuture<Map<Long, Client>> findByIds(Collection<Long> ids) {
+        return findByIds(ids, ClientHydration.WITH_CARDS);
+    }
 
-                    try (ResultSet rs = clientStmt.executeQuery()) {
-                        if (rs.next()) {
-                            clientId = rs.getLong("id");
+    /**
+     * Busca varios clientes por id. Los ids se reparten en bloques por debajo del límite de
+     * variables de SQLite y se lanza una única consulta por bloque.
+     *
+     * @param ids los ids a buscar
+     * @param hydration indica si se cargan también sus tarjetas
+     * @return CompletableFuture con un mapa id -> cliente que solo contiene los encontrados
+     */
+    @Override
+    public CompletableFuture<Map<Long, Client>> findByIds(Collection<Long> ids, ClientHydration hydration) {
+        logger.debug("Buscando {} clientes por id ({})", ids.size(), hydration);
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinctIds.isEmpty()) {
+            return CompletableFuture.completedFuture(new LinkedHashMap<>());
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            Map<Long, Client> clients = new LinkedHashMap<>();
+            try (Connection conn = localDatabase.getReadConnection()) {
+                for (int from = 0; from < distinctIds.size(); from += MAX_IDS_PER_QUERY) {
+                    List<Long> chunk = distinctIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, distinctIds.size()));
+                    String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+                    String sql = selectClients(hydration) + " WHERE c.id IN (" + placeholders + ") ORDER BY c.id" + cardsOrder(hydration);
+                    try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < chunk.size(); i++) {
+                            stmt.setLong(i + 1, chunk.get(i));
                         }
-                    }
-                    if (clientId != null) {
-                        for (BankCard card : client.getCards()) {
-                            String cardSql = "INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
-                            try (PreparedStatement cardStmt = conn.prepareStatement(cardSql)) {
-                                cardStmt.setString(1, card.getNumber());
-                                cardStmt.setLong(2, clientId);
-                                cardStmt.setDate(3, Date.valueOf(card.getExpirationDate()));
-                                cardStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-                                cardStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
-                                cardStmt.executeUpdate();
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            for (Client client : readClients(rs, hydration)) {
+                                clients.put(client.getId(), client);
                             }
                         }
                     }
-                    conn.commit();
-                } catch (SQLException e) {
-                    conn.rollback();
-                    logger.error("Error al guardar cliente: {}", client, e);
-                    throw e;
-                } finally {
-                    conn.setAutoCommit(true);
                 }
             } catch (SQLException e) {
-                logger.error("Error en la transacción de guardado de cliente", e);
+                logger.error("Error al buscar clientes por ids", e);
+                throw new CompletionException(e);
+            }
+            return clients;
+        }, executor);
+    }
+
+    /**
+     * Recorre todos los clientes con sus tarjetas en páginas del tamaño por defecto.
+     *
+     * @return Flux de clientes ordenados por id
+     */
+    public Flux<Client> streamAll() {
+        return streamAll(DEFAULT_STREAM_PAGE_SIZE, ClientHydration.WITH_CARDS);
+    }
+
+    /**
+     * Recorre todos los clientes de la base de datos local paginando por clave ({@code WHERE id > ?}).
+     * Solo se consulta la siguiente página cuando el suscriptor la demanda, por lo que la memoria
+     * usada no depende del tamaño de la tabla y no se lanzan más consultas tras cancelar.
+     *
+     * @param pageSize número de clientes leídos por consulta
+     * @param hydration indica si se cargan también sus tarjetas
+     * @return Flux de clientes ordenados por id
+     */
+    @Override
+    public Flux<Client> streamAll(int pageSize, ClientHydration hydration) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de página debe ser mayor que cero: " + pageSize);
+        }
+        logger.debug("Recorriendo clientes en páginas de {} ({})", pageSize, hydration);
+        String sql = hydration == ClientHydration.WITH_CARDS
+                ? selectClients(hydration) + " WHERE c.id IN (SELECT id FROM clients WHERE id > ? ORDER BY id LIMIT ?) ORDER BY c.id, b.number"
+                : selectClients(hydration) + " WHERE c.id > ? ORDER BY c.id LIMIT ?";
+
+        return Flux.<List<Client>, Long>generate(() -> 0L, (lastId, sink) -> {
+                    try (Connection conn = localDatabase.getReadConnection()) {
+                        PreparedStatement stmt = localDatabase.prepareCached(conn, sql);
+                        stmt.setLong(1, lastId);
+                        stmt.setInt(2, pageSize);
+                        List<Client> page;
+                        try (ResultSet rs = stmt.executeQuery()) {
+                            page = readClients(rs, hydration);
+                        }
+                        if (page.isEmpty()) {
+                            sink.complete();
+                            return lastId;
+                        }
+                        sink.next(page);
+                        if (page.size() < pageSize) {
+                            sink.complete();
+                        }
+                        return page.get(page.size() - 1).getId();
+                    } catch (SQLException e) {
+                        logger.error("Error al leer la página de clientes tras el id: {}", lastId, e);
+                        sink.error(e);
+                        return lastId;
+                    }
+                })
+                .concatMapIterable(page -> page, 1)
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Construye la consulta base de clientes. Con tarjetas se usa un LEFT JOIN para
+     * traer cliente y tarjetas en una sola consulta.
+     * @param hydration el modo de carga
+     * Las columnas siguen el orden de {@link ClientRowMapper} y, detrás, de {@link LocalBankCardRowMapper}.
+     * @return la consulta sin cláusulas WHERE ni ORDER BY
+     */
+    private String selectClients(ClientHydration hydration) {
+        if (hydration == ClientHydration.WITH_CARDS) {
+            return "SELECT " + ClientRowMapper.COLUMNS.select("c") + ", " + LocalBankCardRowMapper.COLUMNS.select("b")
+                    + " FROM clients c LEFT JOIN bank_cards b ON b.client_id = c.id";
+        }
+        return "SELECT " + ClientRowMapper.COLUMNS.select("c") + " FROM clients c";
+    }
+
+    private String cardsOrder(ClientHydration hydration) {
+        return hydration == ClientHydration.WITH_CARDS ? ", b.number" : "";
+    }
+
+    /**
+     * Lee los clientes de un ResultSet ordenado por id de cliente, agrupando las filas
+     * del JOIN en un único {@link Client} a medida que se recorren.
+     * @param rs el resultado de una consulta construida con {@link #selectClients(ClientHydration)}
+     * @param hydration el modo de carga usado en la consulta
+     * @return lista de clientes en el orden del resultado
+     * @throws SQLException si falla la lectura
+     */
+    private List<Client> readClients(ResultSet rs, ClientHydration hydration) throws SQLException {
+        List<Client> clients = new ArrayList<>();
+        Client current = null;
+        while (rs.next()) {
+            long clientId = ClientRowMapper.INSTANCE.readId(rs);
+            if (current == null || current.getId() != clientId) {
+                current = ClientRowMapper.INSTANCE.mapRow(rs);
+                clients.add(current);
             }
-            if (clientId != null) {
-                client.setId(clientId);
+            if (hydration == ClientHydration.WITH_CARDS && JOINED_CARD_MAPPER.isPresent(rs)) {
+                current.getCards().add(JOINED_CARD_MAPPER.mapRow(rs));
             }
-            return client;
-        }, executorService);
+        }
+        return clients;
+    }
+
+    /**
+     * Guarda un cliente en la base de datos local.
+     * Si falla se registra el error y se devuelve el cliente sin guardar; para conocer el fallo usar {@link #insert(Client)}.
+     * @param client el cliente a guardar
+     * @return CompletableFuture de un cliente
+     */
+    @Override
+    public CompletableFuture<Client> save(Client client) {
+        logger.debug("Guardando cliente: {}", client);
+        return insert(client)
+                .exceptionally(e -> {
+                    logger.error("Error al guardar cliente: {}", client, e);
+                    return client;
+                });
+    }
+
+    /**
+     * Inserta un cliente y sus tarjetas en la base de datos local.
+     * El id generado se asigna al cliente solo cuando la transacción se confirma.
+     * @param client el cliente a insertar
+     * @return CompletableFuture con el cliente guardado, o con la excepción si falla la inserción
+     */
+    @Override
+    public CompletableFuture<Client> insert(Client client) {
+        return write(conn -> insertClient(conn, client))
+                .thenApply(clientId -> {
+                    if (clientId != null) {
+                        client.setId(clientId);
+                    }
+                    return client;
+                });
     }
 
     /**
@@ -192,99 +409,209 @@ public class ImplClientRepository implements ClientRepository {
     @Override
     public CompletableFuture<Client> update(Long id, Client client) {
         logger.debug("Actualizando cliente con id: {} con datos: {}", id, client);
-        return CompletableFuture.supplyAsync(() -> {
-            String clientSql = "UPDATE clients SET name = ?, username = ?, email = ?, updated_at = ? WHERE id = ?";
-            boolean updatedClient = false;
-
-            try (Connection conn = localDatabase.getConnection()) {
-                conn.setAutoCommit(false);
-
-                try (PreparedStatement clientStmt = conn.prepareStatement(clientSql)) {
-                    clientStmt.setString(1, client.getName());
-                    clientStmt.setString(2, client.getUsername());
-                    clientStmt.setString(3, client.getEmail());
-                    clientStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-                    clientStmt.setLong(5, id);
-
-                    updatedClient = clientStmt.executeUpdate() > 0;
+        return write(conn -> updateClient(conn, id, client) ? client : null)
+                .exceptionally(e -> {
+                    logger.error("Error al actualizar cliente con id: {}", id, e);
+                    return null;
+                });
+    }
 
-                    if (updatedClient) {
-                        String deleteCardsSql = "DELETE FROM bank_cards WHERE client_id = ?";
-                        try (PreparedStatement deleteCardsStmt = conn.prepareStatement(deleteCardsSql)) {
-                            deleteCardsStmt.setLong(1, id);
-                            deleteCardsStmt.executeUpdate();
-                        }
+    /**
+     * Elimina un cliente de la base de datos local.
+     * @param id el id del cliente a eliminar
+     * @return CompletableFuture de void
+     */
+    @Override
+    public CompletableFuture<Void> delete(Long id) {
+        logger.debug("Eliminando cliente con id: {}", id);
+        return write(conn -> {
+            PreparedStatement clientStmt = localDatabase.prepareCached(conn, "DELETE FROM clients WHERE id = ?");
+            clientStmt.setLong(1, id);
+            clientStmt.executeUpdate();
+            return (Void) null;
+        }).exceptionally(e -> {
+            logger.error("Error al eliminar cliente con id: {}", id, e);
+            return null;
+        });
+    }
 
-                        for (BankCard card : client.getCards()) {
-                            String cardSql = "INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
-                            try (PreparedStatement cardStmt = conn.prepareStatement(cardSql)) {
-                                cardStmt.setString(1, card.getNumber());
-                                cardStmt.setLong(2, id);
-                                cardStmt.setDate(3, Date.valueOf(card.getExpirationDate()));
-                                cardStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-                                cardStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
-                                cardStmt.executeUpdate();
-                            }
-                        }
+    /**
+     * Guarda o actualiza (por username) una lista de clientes y sus tarjetas en una única transacción.
+     * La sentencia de clientes se prepara una sola vez y las tarjetas se insertan en un único lote.
+     * @param clients los clientes a guardar
+     * @return CompletableFuture con los clientes guardados, en el mismo orden y con su id asignado.
+     * Los ids se asignan solo si la transacción se confirma; si falla los clientes quedan como estaban
+     */
+    @Override
+    public CompletableFuture<List<Client>> saveAll(List<Client> clients) {
+        logger.debug("Guardando {} clientes", clients.size());
+        if (clients.isEmpty()) {
+            return CompletableFuture.completedFuture(clients);
+        }
+        return write(conn -> upsertClients(conn, clients))
+                .thenApply(ids -> {
+                    for (int i = 0; i < clients.size(); i++) {
+                        clients.get(i).setId(ids.get(i));
                     }
+                    return clients;
+                });
+    }
 
+    /**
+     * Ejecuta una escritura en su propia transacción o, si el group commit está activo,
+     * la encola para confirmarla junto a otras escrituras concurrentes.
+     * @param work la escritura a ejecutar sobre la conexión de escritura
+     * @return CompletableFuture que se completa cuando la transacción se confirma
+     */
+    private <T> CompletableFuture<T> write(GroupCommitWriter.Work<T> work) {
+        Optional<GroupCommitWriter> groupCommit = localDatabase.getGroupCommitWriter();
+        if (groupCommit.isPresent()) {
+            return groupCommit.get().submit(work);
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try (Connection conn = localDatabase.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    T result = work.execute(conn);
                     conn.commit();
+                    return result;
                 } catch (SQLException e) {
                     conn.rollback();
-                    logger.error("Error al actualizar cliente con id: {}", id, e);
                     throw e;
                 } finally {
                     conn.setAutoCommit(true);
                 }
-
             } catch (SQLException e) {
-                logger.error("Error en la transacción de actualización del cliente", e);
+                throw new CompletionException(e);
             }
-
-            return updatedClient ? client : null;
-        }, executorService);
+        }, executor);
     }
 
     /**
-     * Elimina un cliente de la base de datos local.
-     * @param id el id del cliente a eliminar
-     * @return CompletableFuture de void
+     * Inserta un cliente y sus tarjetas dentro de la transacción en curso
+     * @param conn la conexión de escritura
+     * @param client el cliente a insertar
+     * @return el id generado, que se asigna al cliente tras confirmar la transacción
+     * @throws SQLException si falla alguna inserción
      */
-    @Override
-    public CompletableFuture<Void> delete(Long id) {
-        logger.debug("Eliminando cliente con id: {}", id);
-        return CompletableFuture.runAsync(() -> {
-            Connection conn = null;
-            try {
-                conn = localDatabase.getConnection();
-                conn.setAutoCommit(false);
+    private Long insertClient(Connection conn, Client client) throws SQLException {
+        String clientSql = "INSERT INTO clients (name, username, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?) RETURNING id";
+        Long clientId = null;
+        PreparedStatement clientStmt = localDatabase.prepareCached(conn, clientSql);
+        clientStmt.setString(1, client.getName());
+        clientStmt.setString(2, client.getUsername());
+        clientStmt.setString(3, client.getEmail());
+        clientStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+        clientStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
+
+        try (ResultSet rs = clientStmt.executeQuery()) {
+            if (rs.next()) {
+                clientId = rs.getLong(1);
+            }
+        }
+        if (clientId != null) {
+            insertCards(conn, clientId, client.getCards());
+        }
+        return clientId;
+    }
 
-                String clientSql = "DELETE FROM clients WHERE id = ?";
-                try (PreparedStatement clientStmt = conn.prepareStatement(clientSql)) {
-                    clientStmt.setLong(1, id);
-                    clientStmt.executeUpdate();
-                }
-                conn.commit();
-            } catch (SQLException e) {
-                logger.error("Error al eliminar cliente con id: {}", id, e);
-                if (conn != null) {
-                    try {
-                        conn.rollback();
-                    } catch (SQLException rollbackEx) {
-                        logger.error("Error durante rollback al eliminar cliente con id: {}", id, rollbackEx);
-                    }
-                }
-            } finally {
-                if (conn != null) {
-                    try {
-                        conn.setAutoCommit(true);
-                        conn.close(); // Cerrar conexión
-                    } catch (SQLException ex) {
-                        logger.error("Error al restaurar auto-commit o cerrar conexión después de eliminar cliente con id: {}", id, ex);
-                    }
+    /**
+     * Inserta o actualiza los clientes y sus tarjetas dentro de la transacción en curso
+     * @param conn la conexión de escritura
+     * @param clients los clientes
+     * @return el id insertado o existente de cada cliente, en el mismo orden
+     * @throws SQLException si falla alguna sentencia
+     */
+    private List<Long> upsertClients(Connection conn, List<Client> clients) throws SQLException {
+        String clientSql = """
+                INSERT INTO clients (name, username, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT(username) DO UPDATE SET name = excluded.name, email = excluded.email, updated_at = excluded.updated_at
+                RETURNING id
+                """;
+        String cardSql = """
+                INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)
+                ON CONFLICT(number) DO UPDATE SET client_id = excluded.client_id, expiration_date = excluded.expiration_date, updated_at = excluded.updated_at
+                """;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        PreparedStatement clientStmt = localDatabase.prepareCached(conn, clientSql);
+        PreparedStatement cardStmt = localDatabase.prepareCached(conn, cardSql);
+        List<Long> ids = new ArrayList<>(clients.size());
+        for (Client client : clients) {
+            clientStmt.setString(1, client.getName());
+            clientStmt.setString(2, client.getUsername());
+            clientStmt.setString(3, client.getEmail());
+            clientStmt.setTimestamp(4, now);
+            clientStmt.setTimestamp(5, now);
+            try (ResultSet rs = clientStmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("No se obtuvo el id del cliente: " + client.getUsername());
                 }
+                ids.add(rs.getLong(1));
             }
-        }, executorService);
+
+            for (BankCard card : client.getCards()) {
+                cardStmt.setString(1, card.getNumber());
+                cardStmt.setLong(2, ids.get(ids.size() - 1));
+                cardStmt.setDate(3, Date.valueOf(card.getExpirationDate()));
+                cardStmt.setTimestamp(4, now);
+                cardStmt.setTimestamp(5, now);
+                cardStmt.addBatch();
+            }
+        }
+        cardStmt.executeBatch();
+        return ids;
+    }
+
+    /**
+     * Actualiza un cliente y reemplaza sus tarjetas dentro de la transacción en curso
+     * @param conn la conexión de escritura
+     * @param id el id del cliente
+     * @param client los nuevos datos del cliente
+     * @return true si el cliente existía y se ha actualizado
+     * @throws SQLException si falla alguna sentencia
+     */
+    private boolean updateClient(Connection conn, Long id, Client client) throws SQLException {
+        String clientSql = "UPDATE clients SET name = ?, username = ?, email = ?, updated_at = ? WHERE id = ?";
+        PreparedStatement clientStmt = localDatabase.prepareCached(conn, clientSql);
+        clientStmt.setString(1, client.getName());
+        clientStmt.setString(2, client.getUsername());
+        clientStmt.setString(3, client.getEmail());
+        clientStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+        clientStmt.setLong(5, id);
+        if (clientStmt.executeUpdate() == 0) {
+            return false;
+        }
+
+        PreparedStatement deleteCardsStmt = localDatabase.prepareCached(conn, "DELETE FROM bank_cards WHERE client_id = ?");
+        deleteCardsStmt.setLong(1, id);
+        deleteCardsStmt.executeUpdate();
+        insertCards(conn, id, client.getCards());
+        return true;
+    }
+
+    /**
+     * Inserta por lotes las tarjetas de un cliente dentro de la transacción en curso
+     * @param conn la conexión de escritura
+     * @param clientId el id del cliente propietario
+     * @param cards las tarjetas a insertar
+     * @throws SQLException si falla alguna inserción
+     */
+    private void insertCards(Connection conn, long clientId, List<BankCard> cards) throws SQLException {
+        if (cards.isEmpty()) {
+            return;
+        }
+        String cardSql = "INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+        PreparedStatement cardStmt = localDatabase.prepareCached(conn, cardSql);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (BankCard card : cards) {
+            cardStmt.setString(1, card.getNumber());
+            cardStmt.setLong(2, clientId);
+            cardStmt.setDate(3, Date.valueOf(card.getExpirationDate()));
+            cardStmt.setTimestamp(4, now);
+            cardStmt.setTimestamp(5, now);
+            cardStmt.addBatch();
+        }
+        cardStmt.executeBatch();
     }
 
 
@@ -295,19 +622,11 @@ public class ImplClientRepository implements ClientRepository {
      */
     public List<BankCard> findAllCardsByClientId(Long clientId) {
         List<BankCard> cards = new ArrayList<>();
-        try (var conn = localDatabase.getConnection();
-             var stmt = conn.prepareStatement("SELECT * FROM bank_cards WHERE client_id = ?")) {
+        try (var conn = localDatabase.getReadConnection()) {
+            var stmt = localDatabase.prepareCached(conn, SELECT_CARDS + " WHERE client_id = ?");
             stmt.setLong(1, clientId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                BankCard card = new BankCard(
-                        rs.getString("number"),
-                        rs.getLong("client_id"),
-                        rs.getDate("expiration_date").toLocalDate(),
-                        rs.getTimestamp("created_at").toLocalDateTime(),
-                        rs.getTimestamp("updated_at").toLocalDateTime()
-                );
-                cards.add(card);
+            try (ResultSet rs = stmt.executeQuery()) {
+                cards = RowMapper.mapAll(rs, LocalBankCardRowMapper.INSTANCE);
             }
 
         } catch (SQLException e) {
@@ -318,6 +637,74 @@ public class ImplClientRepository implements ClientRepository {
         return cards;
     }
 
+    /**
+     * Recorre las tarjetas locales que caducan entre dos fechas, ambas incluidas.
+     * El rango se filtra en SQL con el índice de {@code expiration_date} y SQLite devuelve
+     * las filas paso a paso, así que solo se lee el tramo pedido y se emite según la demanda.
+     * La conexión se devuelve al pool al completar, fallar o cancelar.
+     *
+     * @param from primera fecha de caducidad incluida
+     * @param to última fecha de caducidad incluida
+     * @return Flux de tarjetas ordenadas por fecha de caducidad y número
+     */
+    @Override
+    public Flux<BankCard> streamCardsExpiringBetween(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Las fechas del rango no pueden ser nulas");
+        }
+        String sql = SELECT_CARDS
+                + " WHERE expiration_date BETWEEN ? AND ? ORDER BY expiration_date, number";
+        logger.debug("Recorriendo las tarjetas locales que caducan entre {} y {}", from, to);
+
+        return Flux.<BankCard, CardCursor>generate(() -> {
+                    Connection conn = localDatabase.getReadConnection();
+                    try {
+                        PreparedStatement stmt = localDatabase.prepareCached(conn, sql);
+                        stmt.setDate(1, Date.valueOf(from));
+                        stmt.setDate(2, Date.valueOf(to));
+                        return new CardCursor(conn, stmt.executeQuery());
+                    } catch (SQLException e) {
+                        conn.close();
+                        throw e;
+                    }
+                }, (cursor, sink) -> {
+                    try {
+                        if (cursor.resultSet.next()) {
+                            sink.next(LocalBankCardRowMapper.INSTANCE.mapRow(cursor.resultSet));
+                        } else {
+                            sink.complete();
+                        }
+                    } catch (SQLException e) {
+                        logger.error("Error al recorrer las tarjetas que caducan entre {} y {}", from, to, e);
+                        sink.error(e);
+                    }
+                    return cursor;
+                }, CardCursor::close)
+                .subscribeOn(scheduler);
+    }
+
+    /**
+     * Conexión y resultado abiertos mientras dura un recorrido de tarjetas.
+     * La sentencia pertenece a la caché de la conexión, por lo que no se cierra.
+     */
+    private static class CardCursor {
+        private final Connection connection;
+        private final ResultSet resultSet;
+
+        private CardCursor(Connection connection, ResultSet resultSet) {
+            this.connection = connection;
+            this.resultSet = resultSet;
+        }
+
+        private void close() {
+            try (connection; resultSet) {
+                // Solo hay que liberar los recursos
+            } catch (SQLException e) {
+                LoggerFactory.getLogger(ImplClientRepository.class).warn("Error al cerrar el recorrido de tarjetas", e);
+            }
+        }
+    }
+
     /**
      * Guarda una tarjeta de crédito en la base de datos local.
      * @param bankCard la tarjeta de crédito a guardar
@@ -328,9 +715,8 @@ public class ImplClientRepository implements ClientRepository {
         String sql = "INSERT INTO bank_cards (number, client_id, expiration_date) VALUES (?, ?, ?)";
         return CompletableFuture.supplyAsync(() -> {
 
-            try (var conn = localDatabase.getConnection();
-                 var stmt = conn.prepareStatement(sql)) {
-
+            try (var conn = localDatabase.getConnection()) {
+                var stmt = localDatabase.prepareCached(conn, sql);
                 stmt.setString(1, bankCard.getNumber());
                 stmt.setLong(2, bankCard.getClientId());
                 stmt.setDate(3, java.sql.Date.valueOf(bankCard.getExpirationDate()));
@@ -340,7 +726,7 @@ public class ImplClientRepository implements ClientRepository {
                 logger.error("Error al guardar tarjeta: {}", bankCard, e);
             }
             return bankCard;
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -354,9 +740,8 @@ public class ImplClientRepository implements ClientRepository {
         String query = "UPDATE bank_cards SET number = ?, client_id = ?, expiration_date = ? WHERE number = ?";
 
         return CompletableFuture.runAsync(() -> {
-            try (Connection conn = localDatabase.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-
+            try (Connection conn = localDatabase.getConnection()) {
+                PreparedStatement stmt = localDatabase.prepareCached(conn, query);
                 stmt.setString(1, updatedBankCard.getNumber());
                 stmt.setLong(2, updatedBankCard.getClientId());
                 stmt.setDate(3, java.sql.Date.valueOf(updatedBankCard.getExpirationDate()));
@@ -369,7 +754,7 @@ public class ImplClientRepository implements ClientRepository {
             } catch (SQLException e) {
                 logger.error("Error al actualizar tarjeta con número: {}", cardNumber, e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -382,9 +767,8 @@ public class ImplClientRepository implements ClientRepository {
         String query = "DELETE FROM bank_cards WHERE number = ?";
 
         return CompletableFuture.runAsync(() -> {
-            try (Connection conn = localDatabase.getConnection();
-                 PreparedStatement stmt = conn.prepareStatement(query)) {
-
+            try (Connection conn = localDatabase.getConnection()) {
+                PreparedStatement stmt = localDatabase.prepareCached(conn, query);
                 stmt.setString(1, cardNumber);
                 int rowsDeleted = stmt.executeUpdate();
                 if (rowsDeleted == 0) {
@@ -395,7 +779,7 @@ public class ImplClientRepository implements ClientRepository {
             } catch (SQLException e) {
                 logger.error("Error al borrar la tarjeta con número: {}", cardNumber, e);
             }
-        }, executorService);
+        }, executor);
     }
 
     /**
@@ -405,56 +789,76 @@ public class ImplClientRepository implements ClientRepository {
      * @return CompletableFuture de void
      */
     public CompletableFuture<Void> refreshClientsAndCards(List<Client> clients, List<BankCard> bankCards) {
-        logger.debug("Refrescando clientes y tarjetas");
+        return refreshClientsAndCards(clients, bankCards, DEFAULT_REFRESH_CHUNK_SIZE, RefreshProgressListener.NONE);
+    }
+
+    /**
+     * Refresca los clientes y las tarjetas en la base de datos local usando inserciones por lotes.
+     * Las sentencias se preparan una sola vez y se envían cada {@code chunkSize} clientes, pero el borrado
+     * y todas las inserciones van en una única transacción: si algo falla se deshace el refresco entero
+     * y la tabla conserva los datos anteriores.
+     * @param clients lista de clientes
+     * @param bankCards lista de tarjetas
+     * @param chunkSize número de clientes por lote enviado
+     * @param listener recibe el progreso tras cada lote enviado
+     * @return CompletableFuture de void
+     */
+    public CompletableFuture<Void> refreshClientsAndCards(List<Client> clients, List<BankCard> bankCards,
+                                                          int chunkSize, RefreshProgressListener listener) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser mayor que cero: " + chunkSize);
+        }
+        logger.debug("Refrescando {} clientes en bloques de {}", clients.size(), chunkSize);
         return CompletableFuture.runAsync(() -> {
             Connection conn = null;
             try {
                 conn = localDatabase.getConnection();
                 conn.setAutoCommit(false);
 
-                // Eliminar todas las tarjetas
-                String deleteCardsSql = "DELETE FROM bank_cards";
-                try (PreparedStatement deleteCardsStmt = conn.prepareStatement(deleteCardsSql)) {
-                    deleteCardsStmt.executeUpdate();
+                // Eliminar todas las tarjetas y clientes
+                try (Statement deleteStmt = conn.createStatement()) {
+                    deleteStmt.executeUpdate("DELETE FROM bank_cards");
+                    deleteStmt.executeUpdate("DELETE FROM clients");
                 }
 
-                // Eliminar todos los clientes
-                String deleteClientsSql = "DELETE FROM clients";
-                try (PreparedStatement deleteClientsStmt = conn.prepareStatement(deleteClientsSql)) {
-                    deleteClientsStmt.executeUpdate();
-                }
+                // Reservamos los ids para poder insertar por lotes sin RETURNING
+                long nextClientId = nextClientId(conn);
+                String clientSql = "INSERT INTO clients (id, name, username, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+                String cardSql = "INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
+
+                PreparedStatement clientStmt = localDatabase.prepareCached(conn, clientSql);
+                PreparedStatement cardStmt = localDatabase.prepareCached(conn, cardSql);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                int processedClients = 0;
+                int insertedCards = 0;
 
-                // Insertar nuevos clientes
-                String clientSql = "INSERT INTO clients (name, username, email, created_at, updated_at) VALUES (?, ?, ?, ?, ?) RETURNING id";
                 for (Client client : clients) {
-                    Long clientId = null;
-                    try (PreparedStatement clientStmt = conn.prepareStatement(clientSql)) {
-                        clientStmt.setString(1, client.getName());
-                        clientStmt.setString(2, client.getUsername());
-                        clientStmt.setString(3, client.getEmail());
-                        clientStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-                        clientStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
-
-                        try (ResultSet rs = clientStmt.executeQuery()) {
-                            if (rs.next()) {
-                                clientId = rs.getLong("id");
-                            }
-                        }
-                    }
+                    long clientId = nextClientId++;
+                    clientStmt.setLong(1, clientId);
+                    clientStmt.setString(2, client.getName());
+                    clientStmt.setString(3, client.getUsername());
+                    clientStmt.setString(4, client.getEmail());
+                    clientStmt.setTimestamp(5, now);
+                    clientStmt.setTimestamp(6, now);
+                    clientStmt.addBatch();
 
                     // Insertar las tarjetas asociadas al cliente
-                    if (clientId != null) {
-                        String cardSql = "INSERT INTO bank_cards (number, client_id, expiration_date, created_at, updated_at) VALUES (?, ?, ?, ?, ?)";
-                        for (BankCard card : client.getCards()) {
-                            try (PreparedStatement cardStmt = conn.prepareStatement(cardSql)) {
-                                cardStmt.setString(1, card.getNumber());
-                                cardStmt.setLong(2, clientId);
-                                cardStmt.setDate(3, Date.valueOf(card.getExpirationDate()));
-                                cardStmt.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-                                cardStmt.setTimestamp(5, Timestamp.valueOf(LocalDateTime.now()));
-                                cardStmt.executeUpdate();
-                            }
-                        }
+                    for (BankCard card : client.getCards()) {
+                        cardStmt.setString(1, card.getNumber());
+                        cardStmt.setLong(2, clientId);
+                        cardStmt.setDate(3, Date.valueOf(card.getExpirationDate()));
+                        cardStmt.setTimestamp(4, now);
+                        cardStmt.setTimestamp(5, now);
+                        cardStmt.addBatch();
+                        insertedCards++;
+                    }
+
+                    processedClients++;
+                    if (processedClients % chunkSize == 0 || processedClients == clients.size()) {
+                        clientStmt.executeBatch();
+                        cardStmt.executeBatch();
+                        logger.debug("Bloque enviado: {}/{} clientes", processedClients, clients.size());
+                        listener.onChunkWritten(processedClients, clients.size(), insertedCards);
                     }
                 }
 
@@ -478,7 +882,26 @@ public class ImplClientRepository implements ClientRepository {
                     }
                 }
             }
-        }, executorService);
+        }, executor);
+    }
+
+    /**
+     * Calcula el siguiente id libre de la tabla 'clients' respetando la secuencia AUTOINCREMENT.
+     * @param conn la conexión con la transacción en curso
+     * @return el siguiente id a asignar
+     * @throws SQLException si falla la consulta
+     */
+    private long nextClientId(Connection conn) throws SQLException {
+        String sql = """
+                SELECT MAX(
+                    COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'clients'), 0),
+                    COALESCE((SELECT MAX(id) FROM clients), 0)
+                )
+                """;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            return rs.next() ? rs.getLong(1) + 1 : 1;
+        }
     }
 
 // Para ejecutar el refresco
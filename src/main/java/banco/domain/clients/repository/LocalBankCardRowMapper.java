@@ -0,0 +1,51 @@
+package banco.domain.clients.repository;
+
+import banco.domain.cards.model.BankCard;
+import banco.util.jdbc.Projection;
+import banco.util.jdbc.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Convierte filas de {@code bank_cards} de la base de datos local leyendo las columnas por posición
+ */
+public class LocalBankCardRowMapper implements RowMapper<BankCard> {
+    public static final Projection COLUMNS = Projection.of("number", "client_id", "expiration_date", "created_at", "updated_at");
+    public static final LocalBankCardRowMapper INSTANCE = new LocalBankCardRowMapper(0);
+
+    private final int number;
+    private final int clientId;
+    private final int expirationDate;
+    private final int createdAt;
+    private final int updatedAt;
+
+    /**
+     * @param offset número de columnas que preceden a {@link #COLUMNS} en la consulta
+     */
+    public LocalBankCardRowMapper(int offset) {
+        this.number = offset + 1;
+        this.clientId = offset + 2;
+        this.expirationDate = offset + 3;
+        this.createdAt = offset + 4;
+        this.updatedAt = offset + 5;
+    }
+
+    /**
+     * Indica si la fila trae tarjeta; en un LEFT JOIN un cliente sin tarjetas deja estas columnas a NULL
+     */
+    public boolean isPresent(ResultSet rs) throws SQLException {
+        return rs.getString(number) != null;
+    }
+
+    @Override
+    public BankCard mapRow(ResultSet rs) throws SQLException {
+        return new BankCard(
+                rs.getString(number),
+                rs.getLong(clientId),
+                rs.getDate(expirationDate).toLocalDate(),
+                rs.getTimestamp(createdAt).toLocalDateTime(),
+                rs.getTimestamp(updatedAt).toLocalDateTime()
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package banco.domain.clients.repository;
+
+/**
+ * Recibe el progreso de un refresco masivo de clientes y tarjetas.
+ * Se invoca una vez por cada bloque enviado a la base de datos; los cambios solo son visibles
+ * cuando se confirma el refresco completo.
+ */
+@FunctionalInterface
+public interface RefreshProgressListener {
+
+    RefreshProgressListener NONE = (processedClients, totalClients, insertedCards) -> { };
+
+    /**
+     * Notifica que un bloque se ha enviado dentro de la transacción del refresco
+     * @param processedClients clientes insertados hasta el momento
+     * @param totalClients total de clientes a insertar
+     * @param insertedCards tarjetas insertadas hasta el momento
+     */
+    void onChunkWritten(int processedClients, int totalClients, int insertedCards);
+}
@@ -5,13 +5,18 @@ import banco.domain.cards.model.BankCard;
 import banco.domain.clients.exceptions.ClientExceptionBadRequest;
 import banco.domain.clients.exceptions.ClientNotFoundException;
 import banco.domain.clients.model.Client;
+import banco.domain.clients.repository.ClientHydration;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ClientService {
 
     public List<Client> findAllClients();
 
+    public List<Client> findAllClients(ClientHydration hydration);
+
     public Client findByClientId(Long id);
 
     public Client saveClient(Client client) throws ClientExceptionBadRequest;
@@ -24,6 +29,8 @@ public interface ClientService {
 
     public List<BankCard> findBankCardsByClientId(Long id);
 
+    public Map<Long, List<BankCard>> findBankCardsByClientIds(Collection<Long> ids);
+
     public BankCard findBankCardByNumber(String number);
 
     public BankCard saveBankCard(BankCard bankCard);
@@ -4,14 +4,16 @@ import banco.domain.cards.exceptions.BankCardException;
 import banco.domain.cards.exceptions.BankCardNotFoundException;
 import banco.domain.cards.model.BankCard;
 import banco.domain.cards.repository.BankCardRepository;
+import banco.domain.cards.storage.csv.CardStorageCsv;
 import banco.domain.cards.validator.BankCardValidator;
 import banco.domain.clients.exceptions.ClientExceptionBadRequest;
 import banco.domain.clients.exceptions.ClientNotFound;
 import banco.domain.clients.exceptions.ClientNotFoundException;
 import banco.domain.clients.model.Client;
+import banco.domain.clients.repository.ClientHydration;
 import banco.domain.clients.repository.ClientRemoteRepository;
 import banco.domain.clients.service.cache.ClientesCache;
-import banco.domain.clients.service.cache.ClientesCacheImpl;
+import banco.domain.clients.service.cache.ConcurrentClientesCache;
 import banco.domain.clients.service.notification.NotificationService;
 import banco.domain.clients.model.notification.NotificationEvent;
 import banco.domain.clients.model.notification.NotificationType;
@@ -25,7 +27,10 @@ import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public class ImplClientService implements ClientService {
 
@@ -41,8 +46,9 @@ public class ImplClientService implements ClientService {
     private final NotificationService notificationService;
     private final ClientValidator clientValidator = new ClientValidator();
     private final BankCardValidator bankCardValidator = new BankCardValidator();
-    private final ClientesCacheImpl cache = new ClientesCacheImpl(10);
+    private final ClientesCache cache = new ConcurrentClientesCache(10);
     private final ClientStorageJson clientStorageJson = new ClientStorageJson();
+    private final CardStorageCsv cardStorageCsv = new CardStorageCsv();
 
     private ImplClientService(ClientRepository clientRepository, BankCardRepository bankCardRepository, ClientRemoteRepository clientRemoteRepository, NotificationService notificationService) {
         this.localClientRepository = clientRepository;
@@ -64,18 +70,52 @@ public class ImplClientService implements ClientService {
 
 
     /**
-     * Obtiene todos los clientes desde el repositorio remoto
+     * Obtiene todos los clientes desde el repositorio remoto, sin sus tarjetas
 
      * @return
      */
     @Override
     public List<Client> findAllClients() {
+        return findAllClients(ClientHydration.CLIENTS_ONLY);
+    }
+
+    /**
+     * Obtiene todos los clientes desde el repositorio remoto.
+     * Con {@link ClientHydration#WITH_CARDS} se les asignan sus tarjetas, lo que supone una consulta más a la base de datos remota
+     * @param hydration si se cargan o no las tarjetas
+     * @return Lista de clientes
+     */
+    @Override
+    public List<Client> findAllClients(ClientHydration hydration) {
         logger.debug("Buscando todos los clientes");
-        return remoteClientRepository.getAll();
+        List<Client> clients = remoteClientRepository.getAll();
+        return hydration == ClientHydration.WITH_CARDS ? attachBankCards(clients) : clients;
+    }
+
+    /**
+     * Asigna a cada cliente sus tarjetas con una única consulta para todos ellos.
+     * Es la forma de cargar las tarjetas de muchos clientes en lugar de pedirlas cliente a cliente.
+     * @param clients clientes a completar
+     * @return los mismos clientes con sus tarjetas
+     */
+    private List<Client> attachBankCards(List<Client> clients) {
+        if (clients == null || clients.isEmpty()) {
+            return clients;
+        }
+        Map<Long, List<BankCard>> cardsByClient = findBankCardsByClientIds(
+                clients.stream().map(Client::getId).toList());
+        for (Client client : clients) {
+            List<BankCard> cards = cardsByClient.get(client.getId());
+            if (cards != null) {
+                client.setCards(cards);
+            }
+        }
+        return clients;
     }
 
     /**
-     * Busca un cliente por id, primero en la caché, luego en el repositorio local y finalmente en el repositorio remoto
+     * Busca un cliente por id, primero en la caché, luego en el repositorio local y finalmente en el repositorio remoto.
+     * Si varias llamadas piden a la vez un cliente que no está en la caché, solo una lo carga y las demás esperan su resultado.
      * @param id
      * @return El cliente encontrado
      * @throws ClientNotFound si no se encuentra el cliente
@@ -84,16 +124,22 @@ public class ImplClientService implements ClientService {
     @Override
     public Client findByClientId(Long id) {
         logger.debug("Buscando cliente por id: " + id);
-        Client cacheClient = cache.get(id);
-        if (cacheClient != null) {
-            logger.debug("Cliente encontrado en caché: " + cacheClient);
-            return cacheClient;
-        }
+        return cache.get(id, this::loadClient);
+    }
+
+    /**
+     * Carga un cliente que no está en la caché, primero del repositorio local y si no del remoto,
+     * guardándolo en el local. La caché guarda el resultado solo si la carga termina bien.
+     * @param id
+     * @return El cliente encontrado
+     * @throws ClientNotFound si no se encuentra el cliente
+     * @throws RuntimeException si ocurre un error al buscar el cliente
+     */
+    private Client loadClient(Long id) {
         logger.debug("Cliente no encontrado en caché, buscando en el repositorio local");
         Client localClient = localClientRepository.findById(id).join();
         if (localClient!= null) {
             logger.debug("Cliente encontrado en el repositorio local: " + localClient);
-            cache.put(id, localClient);
             return localClient;
         }
 
@@ -101,7 +147,6 @@ public class ImplClientService implements ClientService {
             logger.debug("Cliente no encontrado en el repositorio local, buscando en el repositorio remoto");
             Client remoteClient = remoteClientRepository.getById(id.intValue());
             logger.debug("Cliente encontrado en el repositorio remoto: " + remoteClient);
-            cache.put(id, remoteClient);
             localClientRepository.save(remoteClient).join();
             return remoteClient;
         } catch (ClientNotFound e) {
@@ -111,12 +156,10 @@ public class ImplClientService implements ClientService {
             logger.warn("Error al buscar cliente con id: " + id);
             throw new RuntimeException(e);
         }
-
-
     }
 
     /**
-     * Busca un cliente con un id en la cache y en el local
+     * Busca el cliente por id en la cache y por username o email en el local
      * Si no lo encuentra lo guarda en el repositorio remoto y envía una notificación
      * @param client cliente a guardar
      * @return el cliente guardado
@@ -124,8 +167,12 @@ public class ImplClientService implements ClientService {
     @Override
     public Client saveClient(Client client) throws ClientExceptionBadRequest {
         clientValidator.validate(client);
-        Client cacheClient = cache.get(client.getId());
-        Client localClient = localClientRepository.findById(client.getId()).join();
+        // Un cliente nuevo aún no tiene id: solo se puede buscar por username o email
+        Client cacheClient = client.getId() != null ? cache.get(client.getId()) : null;
+        Client localClient = localClientRepository.findByUsername(client.getUsername(), ClientHydration.CLIENTS_ONLY).join();
+        if (localClient == null) {
+            localClient = localClientRepository.findByEmail(client.getEmail(), ClientHydration.CLIENTS_ONLY).join();
+        }
         if (cacheClient == null && localClient == null) {
             try {
                 logger.debug("Guardando cliente: {}", client);
@@ -216,6 +263,17 @@ public class ImplClientService implements ClientService {
         return bankCardRepository.getBankCardsByClientId(id).join();
     }
 
+    /**
+     * Busca las tarjetas de varios clientes con una única consulta por cada trozo de ids
+     * @param ids ids de los clientes
+     * @return mapa con las tarjetas de cada cliente
+     */
+    @Override
+    public Map<Long, List<BankCard>> findBankCardsByClientIds(Collection<Long> ids) {
+        logger.debug("Buscando tarjetas de {} clientes", ids.size());
+        return bankCardRepository.getBankCardsByClientIds(ids).join();
+    }
+
     /**
      * Busca una tarjeta por número
      * @param number número de la tarjeta
@@ -281,7 +339,7 @@ public class ImplClientService implements ClientService {
     }
 
     /**
-     * Importa clientes desde un archivo JSON y llama al método para guardarlos uno por uno
+     * Importa clientes desde un archivo JSON y llama al método para guardarlos por lotes
      * @param file
      * @return Mono<Void>
      */
@@ -289,33 +347,66 @@ public class ImplClientService implements ClientService {
         return clientStorageJson.importFileMultipleClients(file)
                 .flatMap(clients -> {
                     return Mono.when(
-                            saveClientsIndividually(clients)
+                            saveClientsInBatch(clients)
                     );
                 })
                 .then();
     }
 
     /**
-     * Guarda los clientes uno en uno a partir de una lista de clientes
+     * Importa tarjetas desde un archivo CSV con la carga masiva del repositorio de tarjetas.
+     * Las tarjetas no válidas se descartan; las que ya existen se actualizan.
+     * @param file archivo CSV con cabecera number,clientId,expirationDate,createdAt,updatedAt
+     * @return Mono con el número de tarjetas insertadas o actualizadas
+     */
+    public Mono<Long> importBankCardsFromCsvFile(File file) {
+        Flux<BankCard> validCards = cardStorageCsv.importFile(file)
+                .filter(bankCard -> {
+                    try {
+                        bankCardValidator.validate(bankCard);
+                        return true;
+                    } catch (BankCardException e) {
+                        logger.error("Validation failed for card {}: {}", bankCard.getNumber(), e.getMessage());
+                        return false;
+                    }
+                });
+        return Mono.fromFuture(() -> bankCardRepository.bulkLoad(validCards));
+    }
+
+    /**
+     * Valida los clientes, guarda los válidos en el repositorio local en una única transacción
+     * y después los crea uno a uno en el repositorio remoto.
+     * Si el lote falla se guardan de uno en uno y solo se crean en remoto los que se han guardado
      * @param clients lista de clientes
      * @return Mono<Void>
      */
-    private Mono<Void> saveClientsIndividually(List<Client> clients) {
+    private Mono<Void> saveClientsInBatch(List<Client> clients) {
         return Mono.<Void>fromRunnable(() -> {
+            List<Client> validClients = new ArrayList<>();
             for (Client client : clients) {
                 try {
                     // Validar el cliente
                     clientValidator.validate(client);
+                    validClients.add(client);
+                } catch (ClientExceptionBadRequest e) {
+                    // Manejar el caso donde la validación falla
+                    logger.error("Validation failed for client {}: {}", client.getId(), e.getMessage());
+                }
+            }
 
-                    // Guardar en el repositorio local
-                    localClientRepository.save(client).join();
+            List<Client> savedClients = validClients;
+            try {
+                // Guardar en el repositorio local
+                localClientRepository.saveAll(validClients).join();
+            } catch (Exception e) {
+                logger.warn("Error saving {} clients in batch, saving them one by one: {}", validClients.size(), e.getMessage());
+                savedClients = saveClientsIndividually(validClients);
+            }
 
+            for (Client client : savedClients) {
+                try {
                     // Guardar en el repositorio remoto
                     remoteClientRepository.createClient(client);
-
-                } catch (ClientExceptionBadRequest e) {
-                    // Manejar el caso donde la validación falla
-                    logger.error("Validation failed for client {}: {}", client.getId(), e.getMessage());
                 } catch (Exception e) {
                     // Manejar el caso donde el guardado falla
                     logger.error("Error saving client {}: {}", client.getId(), e.getMessage());
@@ -323,6 +414,24 @@ public class ImplClientService implements ClientService {
             }
         }).subscribeOn(Schedulers.boundedElastic());
     }
-}
-
 
+    /**
+     * Guarda los clientes de uno en uno en el repositorio local cuando el lote falla,
+     * de forma que un cliente repetido no descarte al resto. El lote fallido no deja ids asignados
+     * @param clients clientes ya validados
+     * @return los clientes que se han podido guardar
+     */
+    private List<Client> saveClientsIndividually(List<Client> clients) {
+        List<Client> savedClients = new ArrayList<>();
+        for (Client client : clients) {
+            try {
+                // insert propaga el fallo; save lo registraría y devolvería el cliente como si se hubiera guardado
+                localClientRepository.insert(client).join();
+                savedClients.add(client);
+            } catch (Exception e) {
+                logger.error("Error saving client {}: {}", client.getUsername(), e.getMessage());
+            }
+        }
+        return savedClients;
+    }
+}
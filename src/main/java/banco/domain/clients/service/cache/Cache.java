@@ -1,10 +1,26 @@
 package banco.domain.clients.service.cache;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
 public interface Cache<K,V>{
     void put(K key, V value);
 
     V get(K key);
 
+    /**
+     * Devuelve el valor de la clave o lo carga con {@code loader} si no está en la caché.
+     * Las llamadas concurrentes para la misma clave esperan a una única carga.
+     * El valor cargado se guarda en la caché; si la carga falla no se guarda nada y se relanza su excepción.
+     */
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    /**
+     * Variante asíncrona de {@link #get(Object, Function)}: las llamadas concurrentes para la misma clave
+     * reciben el resultado del mismo {@code CompletableFuture} en curso.
+     */
+    CompletableFuture<V> getAsync(K key, Function<? super K, ? extends CompletableFuture<? extends V>> asyncLoader);
+
     void remove(K key);
 
     void clear();
@@ -7,9 +7,11 @@ import org.slf4j.LoggerFactory;
 import java.time.LocalDateTime;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * Implementa la interfaz {@link ClientesCache} para proporcionar funcionalidad de caché para datos de clientes.
@@ -18,6 +20,7 @@ import java.util.concurrent.TimeUnit;
  */
 public class ClientesCacheImpl implements ClientesCache {
     private final Logger logger = LoggerFactory.getLogger(ClientesCacheImpl.class);
+    private final SingleFlight<Long, Client> loads = new SingleFlight<>(this);
     private final Map<Long, Client> cache;
     private final ScheduledExecutorService cleaner;
 
@@ -40,11 +43,14 @@ public class ClientesCacheImpl implements ClientesCache {
     /**
      * Añade un cliente a la caché utilizando la clave y el valor proporcionados.
      *
-     * @param key   La clave única del cliente en la caché. No puede ser nula.
+     * @param key   La clave única del cliente en la caché. Un cliente sin id no se guarda.
      * @param value El cliente que se añadirá a la caché. No puede ser nulo.
      */
     @Override
     public void put(Long key, Client value) {
+        if (key == null) {
+            return;
+        }
         logger.debug("Añadiendo cliente a la caché con id: " + key + " y valor: " + value);
         cache.put(key, value);
     }
@@ -52,8 +58,8 @@ public class ClientesCacheImpl implements ClientesCache {
     /**
      * Obtiene un cliente de la caché utilizando la clave proporcionada.
      *
-     * @param key La clave única del cliente en la caché. No puede ser nula.
-     * @return El cliente asociado con la clave proporcionada, o {@code null} si no se encuentra en la caché.
+     * @param key La clave única del cliente en la caché. Un cliente sin id nunca está en la caché.
+     * @return El cliente asociado con la clave proporcionada, o {@code null} si no se encuentra en la caché o la clave es nula.
      */
     @Override
     public Client get(Long key) {
@@ -62,13 +68,43 @@ public class ClientesCacheImpl implements ClientesCache {
     }
 
     /**
-     * Elimina un cliente de la caché utilizando la clave proporcionada.
+     * Obtiene un cliente de la caché o lo carga con {@code loader}, compartiendo la carga entre los hilos
+     * que piden el mismo cliente a la vez.
+     *
+     * @param key La clave única del cliente en la caché. No puede ser nula.
+     * @param loader La función que carga el cliente si no está en la caché.
+     * @return El cliente de la caché o el cargado.
+     */
+    @Override
+    public Client get(Long key, Function<? super Long, ? extends Client> loader) {
+        return loads.get(key, loader);
+    }
+
+    /**
+     * Obtiene un cliente de la caché o lo carga con {@code asyncLoader}, compartiendo la carga en curso entre
+     * todas las llamadas para el mismo cliente.
      *
      * @param key La clave única del cliente en la caché. No puede ser nula.
+     * @param asyncLoader La función que lanza la carga del cliente si no está en la caché.
+     * @return Un {@code CompletableFuture} con el cliente de la caché o el cargado.
+     */
+    @Override
+    public CompletableFuture<Client> getAsync(Long key, Function<? super Long, ? extends CompletableFuture<? extends Client>> asyncLoader) {
+        return loads.getAsync(key, asyncLoader);
+    }
+
+    /**
+     * Elimina un cliente de la caché utilizando la clave proporcionada. Con una clave nula no hace nada.
+     *
+     * @param key La clave única del cliente en la caché.
      */
     @Override
     public void remove(Long key) {
+        if (key == null) {
+            return;
+        }
         logger.debug("Eliminando cliente de la caché con id: " + key);
+        loads.invalidate(key);
         cache.remove(key);
     }
 
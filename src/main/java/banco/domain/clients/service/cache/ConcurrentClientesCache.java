@@ -0,0 +1,303 @@
+package banco.domain.clients.service.cache;
+
+import banco.domain.clients.model.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementación de {@link ClientesCache} segura para varios hilos.
+ * Las entradas se reparten por su clave entre segmentos independientes, cada uno un LRU con su propio cerrojo,
+ * de modo que los hilos que consultan claves de segmentos distintos no se esperan entre sí.
+ * La capacidad total se reparte entre los segmentos, así que la caché nunca supera {@code maxSize} entradas;
+ * a cambio, la expulsión es LRU dentro de cada segmento y no sobre la caché entera.
+ * Cada segmento guarda los plazos de caducidad de sus entradas en su propia {@link TimerWheel}.
+ */
+public class ConcurrentClientesCache implements ClientesCache {
+    private static final ExpirationPolicy DEFAULT_EXPIRATION = ExpirationPolicy.afterWrite(Duration.ofMinutes(1));
+    /**
+     * Capacidad mínima de cada segmento. Con segmentos más pequeños dos claves que caen en el mismo
+     * se expulsan entre sí aunque la caché esté casi vacía, así que una caché pequeña usa un único segmento.
+     */
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private static class Segment {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final TimerWheel<Long, Client> wheel;
+        private final LinkedHashMap<Long, TimerWheel.Node<Long, Client>> entries;
+
+        private Segment(int capacity, long now) {
+            this.wheel = new TimerWheel<>(now);
+            this.entries = new LinkedHashMap<>(capacity, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, TimerWheel.Node<Long, Client>> eldest) {
+                    if (size() > capacity) {
+                        wheel.deschedule(eldest.getValue());
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+    }
+
+    private final Logger logger = LoggerFactory.getLogger(ConcurrentClientesCache.class);
+    private final SingleFlight<Long, Client> loads = new SingleFlight<>(this);
+    private final Segment[] segments;
+    private final int mask;
+    private final ExpirationPolicy expiration;
+    private final LongSupplier ticker;
+    private final ScheduledExecutorService cleaner;
+
+    /**
+     * Construye la caché con un número de segmentos proporcional a los procesadores disponibles
+     * y entradas que caducan un minuto después de guardarse.
+     *
+     * @param maxSize el número máximo de entradas que la caché puede contener
+     */
+    public ConcurrentClientesCache(int maxSize) {
+        this(maxSize, DEFAULT_EXPIRATION);
+    }
+
+    /**
+     * Construye la caché con un número de segmentos proporcional a los procesadores disponibles.
+     *
+     * @param maxSize el número máximo de entradas que la caché puede contener
+     * @param expiration la política de caducidad de las entradas
+     */
+    public ConcurrentClientesCache(int maxSize, ExpirationPolicy expiration) {
+        this(maxSize, 4 * Runtime.getRuntime().availableProcessors(), expiration);
+    }
+
+    /**
+     * Construye la caché con el número de segmentos indicado y entradas que caducan un minuto después de guardarse.
+     *
+     * @param maxSize el número máximo de entradas que la caché puede contener
+     * @param concurrencyLevel número de hilos que se espera que la usen a la vez
+     */
+    public ConcurrentClientesCache(int maxSize, int concurrencyLevel) {
+        this(maxSize, concurrencyLevel, DEFAULT_EXPIRATION);
+    }
+
+    /**
+     * Construye la caché con el número de segmentos indicado, redondeado a una potencia de dos
+     * y limitado para que cada segmento tenga al menos {@value #MIN_SEGMENT_CAPACITY} entradas.
+     *
+     * @param maxSize el número máximo de entradas que la caché puede contener
+     * @param concurrencyLevel número de hilos que se espera que la usen a la vez
+     * @param expiration la política de caducidad de las entradas
+     */
+    public ConcurrentClientesCache(int maxSize, int concurrencyLevel, ExpirationPolicy expiration) {
+        this(maxSize, concurrencyLevel, expiration, System::nanoTime);
+    }
+
+    ConcurrentClientesCache(int maxSize, int concurrencyLevel, ExpirationPolicy expiration, LongSupplier ticker) {
+        if (maxSize <= 0 || concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Tamaño o nivel de concurrencia no válidos: " + maxSize + ", " + concurrencyLevel);
+        }
+        this.expiration = expiration;
+        this.ticker = ticker;
+        int count = 1;
+        while (count < concurrencyLevel && count * 2 * MIN_SEGMENT_CAPACITY <= maxSize) {
+            count <<= 1;
+        }
+        this.segments = new Segment[count];
+        this.mask = count - 1;
+        long now = ticker.getAsLong();
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(maxSize / count + (i < maxSize % count ? 1 : 0), now);
+        }
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clientes-cache-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner.scheduleAtFixedRate(this::clear, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private Segment segmentFor(Long key) {
+        int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & mask];
+    }
+
+    /**
+     * Añade un cliente a la caché, expulsando el menos usado recientemente de su segmento si está lleno.
+     * El plazo de caducidad de la entrada empieza a contar de nuevo.
+     *
+     * @param key   La clave única del cliente en la caché. Un cliente sin id no se guarda.
+     * @param value El cliente que se añadirá a la caché. No puede ser nulo.
+     */
+    @Override
+    public void put(Long key, Client value) {
+        if (key == null) {
+            return;
+        }
+        logger.debug("Añadiendo cliente a la caché con id: {}", key);
+        long now = ticker.getAsLong();
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            expire(segment, now);
+            TimerWheel.Node<Long, Client> node = segment.entries.get(key);
+            if (node == null) {
+                node = new TimerWheel.Node<>(key, value);
+                segment.entries.put(key, node);
+            } else {
+                node.value = value;
+            }
+            scheduleExpiration(segment, node, now);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene un cliente de la caché y lo marca como usado recientemente.
+     *
+     * @param key La clave única del cliente en la caché. Un cliente sin id nunca está en la caché.
+     * @return El cliente asociado con la clave proporcionada, o {@code null} si no está en la caché, ha caducado o la clave es nula.
+     */
+    @Override
+    public Client get(Long key) {
+        if (key == null) {
+            return null;
+        }
+        long now = ticker.getAsLong();
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            expire(segment, now);
+            TimerWheel.Node<Long, Client> node = segment.entries.get(key);
+            if (node == null) {
+                return null;
+            }
+            if (expiration.expires() && node.deadline - now <= 0) {
+                segment.entries.remove(key);
+                segment.wheel.deschedule(node);
+                return null;
+            }
+            if (expiration.refreshOnRead()) {
+                scheduleExpiration(segment, node, now);
+            }
+            return node.value;
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene un cliente de la caché o lo carga con {@code loader}, compartiendo la carga entre los hilos
+     * que piden el mismo cliente a la vez.
+     *
+     * @param key La clave única del cliente en la caché. No puede ser nula.
+     * @param loader La función que carga el cliente si no está en la caché.
+     * @return El cliente de la caché o el cargado.
+     */
+    @Override
+    public Client get(Long key, Function<? super Long, ? extends Client> loader) {
+        return loads.get(key, loader);
+    }
+
+    /**
+     * Obtiene un cliente de la caché o lo carga con {@code asyncLoader}, compartiendo la carga en curso entre
+     * todas las llamadas para el mismo cliente.
+     *
+     * @param key La clave única del cliente en la caché. No puede ser nula.
+     * @param asyncLoader La función que lanza la carga del cliente si no está en la caché.
+     * @return Un {@code CompletableFuture} con el cliente de la caché o el cargado.
+     */
+    @Override
+    public CompletableFuture<Client> getAsync(Long key, Function<? super Long, ? extends CompletableFuture<? extends Client>> asyncLoader) {
+        return loads.getAsync(key, asyncLoader);
+    }
+
+    /**
+     * Elimina un cliente de la caché. Con una clave nula no hace nada.
+     *
+     * @param key La clave única del cliente en la caché.
+     */
+    @Override
+    public void remove(Long key) {
+        if (key == null) {
+            return;
+        }
+        logger.debug("Eliminando cliente de la caché con id: {}", key);
+        loads.invalidate(key);
+        Segment segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            TimerWheel.Node<Long, Client> node = segment.entries.remove(key);
+            if (node != null) {
+                segment.wheel.deschedule(node);
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina las entradas caducadas avanzando la rueda de cada segmento.
+     * Solo visita las entradas cuyo plazo ha vencido o que cambian de nivel, no la caché entera.
+     */
+    @Override
+    public void clear() {
+        long now = ticker.getAsLong();
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                expire(segment, now);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Número de entradas en la caché, incluidas las caducadas que aún no se han retirado.
+     * No es una instantánea atómica si hay escrituras concurrentes.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Apaga el hilo limpiador de la caché.
+     */
+    @Override
+    public void shutdown() {
+        cleaner.shutdown();
+    }
+
+    private void scheduleExpiration(Segment segment, TimerWheel.Node<Long, Client> node, long now) {
+        if (expiration.expires()) {
+            node.deadline = expiration.deadline(now);
+            segment.wheel.schedule(node);
+        }
+    }
+
+    private void expire(Segment segment, long now) {
+        segment.wheel.advance(now, node -> {
+            logger.debug("Autoeliminando por caducidad cliente de la caché con id: {}", node.key);
+            segment.entries.remove(node.key);
+        });
+    }
+}
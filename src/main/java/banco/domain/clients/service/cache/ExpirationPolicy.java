@@ -0,0 +1,60 @@
+package banco.domain.clients.service.cache;
+
+import java.time.Duration;
+
+/**
+ * Política de caducidad de las entradas de una caché.
+ * El plazo empieza a contar cuando la entrada se guarda en la caché ({@link #afterWrite}) o cada vez que
+ * se escribe o se lee ({@link #afterAccess}), independientemente de la fecha de actualización del cliente.
+ */
+public class ExpirationPolicy {
+    private static final ExpirationPolicy NONE = new ExpirationPolicy(0, false);
+
+    private final long ttlNanos;
+    private final boolean refreshOnRead;
+
+    private ExpirationPolicy(long ttlNanos, boolean refreshOnRead) {
+        this.ttlNanos = ttlNanos;
+        this.refreshOnRead = refreshOnRead;
+    }
+
+    /**
+     * Las entradas no caducan; solo salen de la caché al expulsarlas por tamaño o al eliminarlas
+     */
+    public static ExpirationPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Las entradas caducan cuando pasa {@code ttl} desde que se guardaron por última vez
+     */
+    public static ExpirationPolicy afterWrite(Duration ttl) {
+        return new ExpirationPolicy(toNanos(ttl), false);
+    }
+
+    /**
+     * Las entradas caducan cuando pasa {@code ttl} sin que se guarden ni se lean
+     */
+    public static ExpirationPolicy afterAccess(Duration ttl) {
+        return new ExpirationPolicy(toNanos(ttl), true);
+    }
+
+    private static long toNanos(Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Tiempo de caducidad no válido: " + ttl);
+        }
+        return ttl.toNanos();
+    }
+
+    boolean expires() {
+        return ttlNanos > 0;
+    }
+
+    boolean refreshOnRead() {
+        return refreshOnRead;
+    }
+
+    long deadline(long now) {
+        return now + ttlNanos;
+    }
+}
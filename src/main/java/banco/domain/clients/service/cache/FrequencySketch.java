@@ -0,0 +1,73 @@
+package banco.domain.clients.service.cache;
+
+/**
+ * Sketch count-min que estima cuántas veces se ha accedido a cada clave en la ventana reciente.
+ * Usa cuatro filas de contadores de 4 bits (saturan en 15) y, cada {@code 10 * width} incrementos,
+ * divide todos los contadores a la mitad para que la frecuencia olvide los accesos antiguos.
+ * No es seguro para varios hilos: lo protege la caché que lo usa.
+ */
+class FrequencySketch {
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+            0x97cb3127L, 0xab8a7f3dL, 0xcc9e2d51L, 0x1b873593L
+    };
+
+    private final byte[] table;
+    private final int widthMask;
+    private final int sampleSize;
+    private int additions;
+
+    /**
+     * @param expectedEntries número de entradas de la caché; el ancho es la siguiente potencia de dos
+     */
+    FrequencySketch(int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(16, expectedEntries - 1)) << 1;
+        this.table = new byte[DEPTH * width];
+        this.widthMask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    /**
+     * Registra un acceso a la clave
+     */
+    void increment(long key) {
+        boolean added = false;
+        for (int i = 0; i < DEPTH; i++) {
+            int index = indexOf(key, i);
+            if (table[index] < MAX_COUNT) {
+                table[index]++;
+                added = true;
+            }
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Frecuencia estimada de la clave: el mínimo de sus contadores, que nunca es menor que la real
+     * salvo por el envejecimiento
+     */
+    int frequency(long key) {
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < DEPTH; i++) {
+            frequency = Math.min(frequency, table[indexOf(key, i)]);
+        }
+        return frequency;
+    }
+
+    private int indexOf(long key, int row) {
+        long hash = (key + SEEDS[row]) * SEEDS[row];
+        hash ^= hash >>> 32;
+        hash ^= hash >>> 17;
+        return row * (widthMask + 1) + ((int) hash & widthMask);
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] >>>= 1;
+        }
+        additions /= 2;
+    }
+}
@@ -0,0 +1,104 @@
+package banco.domain.clients.service.cache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Agrupa las cargas concurrentes de una misma clave que no está en la caché.
+ * El primer hilo que falla la lectura lanza la carga; los demás esperan al mismo {@link CompletableFuture}.
+ * Si la carga termina bien, el valor se guarda en la caché antes de retirar la carga en curso,
+ * de modo que quien llegue después lo encuentra en la caché. Si falla, no se guarda nada
+ * y la siguiente lectura vuelve a intentarlo. Quien registra una carga nueva vuelve a mirar la caché antes de lanzarla,
+ * porque otra carga puede haber terminado entre su lectura fallida y el registro.
+ *
+ * @param <K> el tipo de las claves
+ * @param <V> el tipo de los valores
+ */
+class SingleFlight<K, V> {
+    private final Cache<K, V> cache;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * @param cache la caché donde se buscan y se guardan los valores
+     */
+    SingleFlight(Cache<K, V> cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Devuelve el valor de la caché o lo carga en el hilo llamante, compartiendo la carga con otros hilos.
+     * Las excepciones del cargador se relanzan sin envolver.
+     */
+    V get(K key, Function<? super K, ? extends V> loader) {
+        V cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        try {
+            return load(key, k -> CompletableFuture.completedFuture(loader.apply(k))).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Devuelve el valor de la caché o el resultado de la carga en curso, lanzándola si no hay ninguna.
+     */
+    CompletableFuture<V> getAsync(K key, Function<? super K, ? extends CompletableFuture<? extends V>> loader) {
+        V cached = cache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return load(key, loader);
+    }
+
+    /**
+     * Descarta la carga en curso de la clave para que su resultado no se guarde en la caché.
+     * Los hilos que ya la esperaban reciben igualmente el valor.
+     */
+    void invalidate(K key) {
+        inFlight.remove(key);
+    }
+
+    private CompletableFuture<V> load(K key, Function<? super K, ? extends CompletableFuture<? extends V>> loader) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            return existing.copy();
+        }
+        V cached = cache.get(key);
+        if (cached != null) {
+            inFlight.remove(key, promise);
+            promise.complete(cached);
+            return promise.copy();
+        }
+        try {
+            loader.apply(key).whenComplete((value, error) -> {
+                inFlight.computeIfPresent(key, (k, current) -> {
+                    if (current != promise) {
+                        return current;
+                    }
+                    if (error == null && value != null) {
+                        cache.put(k, value);
+                    }
+                    return null;
+                });
+                if (error != null) {
+                    promise.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                } else {
+                    promise.complete(value);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise.copy();
+    }
+}
@@ -0,0 +1,152 @@
+package banco.domain.clients.service.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Rueda de temporizadores jerárquica para caducar entradas sin recorrer la caché entera.
+ * Cada nivel divide el tiempo en cubetas de un ancho distinto (~1 s, ~1 min, ~1 h, ~1,6 días y ~6,5 días);
+ * una entrada se guarda en la cubeta del nivel más fino que abarca su plazo.
+ * Al avanzar el reloj solo se revisan las cubetas por las que ha pasado el tiempo: las entradas vencidas
+ * se entregan al llamante y las demás bajan a un nivel más fino. Programar, reprogramar y cancelar son O(1),
+ * y cada entrada baja como mucho una vez por nivel, así que el coste amortizado por entrada es O(1).
+ * No es segura para varios hilos: la protege la caché que la usa.
+ *
+ * @param <K> el tipo de las claves
+ * @param <V> el tipo de los valores
+ */
+class TimerWheel<K, V> {
+    private static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    private static final long[] SPANS = {
+            1L << 30, // 1,07 s
+            1L << 36, // 1,14 min
+            1L << 42, // 1,22 h
+            1L << 47, // 1,63 días
+            1L << 49, // 6,5 días
+            1L << 49
+    };
+    private static final int[] SHIFT = new int[SPANS.length];
+
+    static {
+        for (int i = 0; i < SPANS.length; i++) {
+            SHIFT[i] = Long.numberOfTrailingZeros(SPANS[i]);
+        }
+    }
+
+    /**
+     * Entrada de la caché enlazada en una cubeta. {@code deadline} está en el mismo reloj que se pasa a {@link #advance}.
+     */
+    static final class Node<K, V> {
+        final K key;
+        V value;
+        long deadline;
+        private Node<K, V> prev;
+        private Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    private final Node<K, V>[][] wheel;
+    private final long origin;
+    private long elapsed;
+
+    /**
+     * @param now el instante actual en nanosegundos, que se toma como origen de la rueda
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(long now) {
+        this.origin = now;
+        this.wheel = new Node[BUCKETS.length][];
+        for (int i = 0; i < BUCKETS.length; i++) {
+            wheel[i] = new Node[BUCKETS[i]];
+            for (int j = 0; j < BUCKETS[i]; j++) {
+                Node<K, V> sentinel = new Node<>(null, null);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * Programa la entrada en la cubeta de su {@code deadline}, sacándola antes de la que ocupara
+     */
+    void schedule(Node<K, V> node) {
+        deschedule(node);
+        Node<K, V> sentinel = findBucket(node.deadline - origin);
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    /**
+     * Saca la entrada de su cubeta. No hace nada si no estaba programada.
+     */
+    void deschedule(Node<K, V> node) {
+        if (node.next != null) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /**
+     * Avanza la rueda hasta {@code now} y entrega cada entrada vencida a {@code onExpire}, ya fuera de la rueda
+     */
+    void advance(long now, Consumer<Node<K, V>> onExpire) {
+        long previous = elapsed;
+        long current = now - origin;
+        if (current <= previous) {
+            return;
+        }
+        elapsed = current;
+        for (int i = 0; i < BUCKETS.length; i++) {
+            long previousTicks = previous >>> SHIFT[i];
+            long currentTicks = current >>> SHIFT[i];
+            if (currentTicks - previousTicks <= 0) {
+                break;
+            }
+            expire(i, previousTicks, currentTicks - previousTicks, now, onExpire);
+        }
+    }
+
+    private void expire(int level, long previousTicks, long delta, long now, Consumer<Node<K, V>> onExpire) {
+        Node<K, V>[] buckets = wheel[level];
+        int mask = buckets.length - 1;
+        int steps = (int) Math.min(1 + delta, buckets.length);
+        int start = (int) (previousTicks & mask);
+        for (int i = start; i < start + steps; i++) {
+            Node<K, V> sentinel = buckets[i & mask];
+            Node<K, V> node = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (node != sentinel) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.deadline - now <= 0) {
+                    onExpire.accept(node);
+                } else {
+                    schedule(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private Node<K, V> findBucket(long time) {
+        long duration = time - elapsed;
+        int last = BUCKETS.length - 1;
+        for (int i = 0; i < last; i++) {
+            if (duration < SPANS[i + 1]) {
+                int index = (int) ((time >>> SHIFT[i]) & (BUCKETS[i] - 1));
+                return wheel[i][index];
+            }
+        }
+        return wheel[last][0];
+    }
+}
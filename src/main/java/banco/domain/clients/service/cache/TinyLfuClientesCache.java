@@ -0,0 +1,324 @@
+package banco.domain.clients.service.cache;
+
+import banco.domain.clients.model.Client;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Implementación de {@link ClientesCache} con política de admisión W-TinyLFU.
+ * <ul>
+ *     <li>Las entradas nuevas entran en una ventana LRU pequeña (1% de la capacidad).</li>
+ *     <li>Al salir de la ventana, la entrada solo pasa a la región principal si su frecuencia estimada
+ *     supera a la de la víctima que desplazaría; si no, se descarta.</li>
+ *     <li>La región principal es un LRU segmentado: las entradas llegan a {@code probation} y pasan a
+ *     {@code protected} (80% de la región) cuando se vuelven a leer.</li>
+ * </ul>
+ * Así un recorrido de claves que solo se leen una vez, como una importación o un listado completo,
+ * no expulsa a los clientes que se consultan con frecuencia.
+ * Los plazos de caducidad de las entradas se guardan en una {@link TimerWheel}.
+ * Todas las operaciones se hacen bajo un único cerrojo.
+ */
+public class TinyLfuClientesCache implements ClientesCache {
+    private static final ExpirationPolicy DEFAULT_EXPIRATION = ExpirationPolicy.afterWrite(Duration.ofMinutes(1));
+
+    private final Logger logger = LoggerFactory.getLogger(TinyLfuClientesCache.class);
+    private final SingleFlight<Long, Client> loads = new SingleFlight<>(this);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final FrequencySketch sketch;
+    private final TimerWheel<Long, Client> wheel;
+    private final LinkedHashMap<Long, TimerWheel.Node<Long, Client>> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, TimerWheel.Node<Long, Client>> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<Long, TimerWheel.Node<Long, Client>> protectedRegion = new LinkedHashMap<>(16, 0.75f, true);
+    private final int windowCapacity;
+    private final int mainCapacity;
+    private final int protectedCapacity;
+    private final ExpirationPolicy expiration;
+    private final LongSupplier ticker;
+    private final ScheduledExecutorService cleaner;
+
+    /**
+     * Construye la caché con el tamaño máximo indicado y entradas que caducan un minuto después de guardarse.
+     *
+     * @param maxSize el número máximo de entradas que la caché puede contener
+     */
+    public TinyLfuClientesCache(int maxSize) {
+        this(maxSize, DEFAULT_EXPIRATION);
+    }
+
+    /**
+     * Construye la caché con el tamaño máximo y la política de caducidad indicados.
+     *
+     * @param maxSize el número máximo de entradas que la caché puede contener
+     * @param expiration la política de caducidad de las entradas
+     */
+    public TinyLfuClientesCache(int maxSize, ExpirationPolicy expiration) {
+        this(maxSize, expiration, System::nanoTime);
+    }
+
+    TinyLfuClientesCache(int maxSize, ExpirationPolicy expiration, LongSupplier ticker) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Tamaño de caché no válido: " + maxSize);
+        }
+        this.windowCapacity = Math.max(1, maxSize / 100);
+        this.mainCapacity = maxSize - windowCapacity;
+        this.protectedCapacity = mainCapacity * 80 / 100;
+        this.sketch = new FrequencySketch(maxSize);
+        this.expiration = expiration;
+        this.ticker = ticker;
+        this.wheel = new TimerWheel<>(ticker.getAsLong());
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "clientes-cache-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.cleaner.scheduleAtFixedRate(this::clear, 1, 1, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Añade o reemplaza un cliente. Si es nuevo entra en la ventana y puede provocar una admisión o un descarte.
+     * El plazo de caducidad de la entrada empieza a contar de nuevo.
+     *
+     * @param key   La clave única del cliente en la caché. Un cliente sin id no se guarda.
+     * @param value El cliente que se añadirá a la caché. No puede ser nulo.
+     */
+    @Override
+    public void put(Long key, Client value) {
+        if (key == null) {
+            return;
+        }
+        logger.debug("Añadiendo cliente a la caché con id: {}", key);
+        long now = ticker.getAsLong();
+        lock.lock();
+        try {
+            expire(now);
+            sketch.increment(key);
+            TimerWheel.Node<Long, Client> node = window.get(key);
+            if (node == null) {
+                node = protectedRegion.get(key);
+            }
+            if (node == null) {
+                node = probation.remove(key);
+                if (node != null) {
+                    promote(node);
+                }
+            }
+            if (node != null) {
+                node.value = value;
+                scheduleExpiration(node, now);
+                return;
+            }
+            node = new TimerWheel.Node<>(key, value);
+            window.put(key, node);
+            scheduleExpiration(node, now);
+            if (window.size() > windowCapacity) {
+                evictFromWindow();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene un cliente de la caché. Leer una entrada en {@code probation} la promociona a {@code protected}.
+     *
+     * @param key La clave única del cliente en la caché. Un cliente sin id nunca está en la caché.
+     * @return El cliente asociado con la clave proporcionada, o {@code null} si no está en la caché, ha caducado o la clave es nula.
+     */
+    @Override
+    public Client get(Long key) {
+        if (key == null) {
+            return null;
+        }
+        long now = ticker.getAsLong();
+        lock.lock();
+        try {
+            expire(now);
+            sketch.increment(key);
+            TimerWheel.Node<Long, Client> node = window.get(key);
+            if (node == null) {
+                node = protectedRegion.get(key);
+            }
+            if (node == null) {
+                node = probation.remove(key);
+                if (node != null) {
+                    promote(node);
+                }
+            }
+            if (node == null) {
+                return null;
+            }
+            if (expiration.expires() && node.deadline - now <= 0) {
+                removeNode(node);
+                return null;
+            }
+            if (expiration.refreshOnRead()) {
+                scheduleExpiration(node, now);
+            }
+            return node.value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Obtiene un cliente de la caché o lo carga con {@code loader}, compartiendo la carga entre los hilos
+     * que piden el mismo cliente a la vez.
+     *
+     * @param key La clave única del cliente en la caché. No puede ser nula.
+     * @param loader La función que carga el cliente si no está en la caché.
+     * @return El cliente de la caché o el cargado.
+     */
+    @Override
+    public Client get(Long key, Function<? super Long, ? extends Client> loader) {
+        return loads.get(key, loader);
+    }
+
+    /**
+     * Obtiene un cliente de la caché o lo carga con {@code asyncLoader}, compartiendo la carga en curso entre
+     * todas las llamadas para el mismo cliente.
+     *
+     * @param key La clave única del cliente en la caché. No puede ser nula.
+     * @param asyncLoader La función que lanza la carga del cliente si no está en la caché.
+     * @return Un {@code CompletableFuture} con el cliente de la caché o el cargado.
+     */
+    @Override
+    public CompletableFuture<Client> getAsync(Long key, Function<? super Long, ? extends CompletableFuture<? extends Client>> asyncLoader) {
+        return loads.getAsync(key, asyncLoader);
+    }
+
+    /**
+     * Elimina un cliente de la caché. Con una clave nula no hace nada.
+     *
+     * @param key La clave única del cliente en la caché.
+     */
+    @Override
+    public void remove(Long key) {
+        if (key == null) {
+            return;
+        }
+        logger.debug("Eliminando cliente de la caché con id: {}", key);
+        loads.invalidate(key);
+        lock.lock();
+        try {
+            TimerWheel.Node<Long, Client> node = window.get(key);
+            if (node == null) {
+                node = probation.get(key);
+            }
+            if (node == null) {
+                node = protectedRegion.get(key);
+            }
+            if (node != null) {
+                removeNode(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Elimina las entradas caducadas avanzando la rueda de temporizadores.
+     * Solo visita las entradas cuyo plazo ha vencido o que cambian de nivel, no la caché entera.
+     */
+    @Override
+    public void clear() {
+        long now = ticker.getAsLong();
+        lock.lock();
+        try {
+            expire(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Número de entradas en la caché, incluidas las caducadas que aún no se han retirado
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return window.size() + probation.size() + protectedRegion.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Apaga el hilo limpiador de la caché.
+     */
+    @Override
+    public void shutdown() {
+        cleaner.shutdown();
+    }
+
+    /**
+     * Pasa una entrada leída de nuevo a {@code protected}; si se llena, su entrada más antigua vuelve a {@code probation}
+     */
+    private void promote(TimerWheel.Node<Long, Client> node) {
+        protectedRegion.put(node.key, node);
+        if (protectedRegion.size() > protectedCapacity) {
+            TimerWheel.Node<Long, Client> demoted = pollEldest(protectedRegion);
+            probation.put(demoted.key, demoted);
+        }
+    }
+
+    /**
+     * Saca de la ventana su entrada más antigua y decide si entra en la región principal
+     */
+    private void evictFromWindow() {
+        TimerWheel.Node<Long, Client> candidate = pollEldest(window);
+        if (probation.size() + protectedRegion.size() < mainCapacity) {
+            probation.put(candidate.key, candidate);
+            return;
+        }
+        LinkedHashMap<Long, TimerWheel.Node<Long, Client>> victimRegion = probation.isEmpty() ? protectedRegion : probation;
+        if (!victimRegion.isEmpty()) {
+            TimerWheel.Node<Long, Client> victim = victimRegion.values().iterator().next();
+            if (sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                removeNode(victim);
+                probation.put(candidate.key, candidate);
+                return;
+            }
+        }
+        logger.debug("Descartando cliente de la caché con id: {}", candidate.key);
+        wheel.deschedule(candidate);
+    }
+
+    private void removeNode(TimerWheel.Node<Long, Client> node) {
+        if (window.remove(node.key) == null && probation.remove(node.key) == null) {
+            protectedRegion.remove(node.key);
+        }
+        wheel.deschedule(node);
+    }
+
+    private void scheduleExpiration(TimerWheel.Node<Long, Client> node, long now) {
+        if (expiration.expires()) {
+            node.deadline = expiration.deadline(now);
+            wheel.schedule(node);
+        }
+    }
+
+    private void expire(long now) {
+        wheel.advance(now, node -> {
+            logger.debug("Autoeliminando por caducidad cliente de la caché con id: {}", node.key);
+            removeNode(node);
+        });
+    }
+
+    private static TimerWheel.Node<Long, Client> pollEldest(LinkedHashMap<Long, TimerWheel.Node<Long, Client>> region) {
+        Iterator<TimerWheel.Node<Long, Client>> iterator = region.values().iterator();
+        TimerWheel.Node<Long, Client> eldest = iterator.next();
+        iterator.remove();
+        return eldest;
+    }
+}
@@ -0,0 +1,89 @@
+package banco.util;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma concurrente de valores no negativos con cubetas en potencias de dos.
+ * Registrar un valor no bloquea, por lo que se puede usar en caminos calientes
+ * (latencias en microsegundos, tamaños de lote...).
+ */
+public class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra un valor. Los valores negativos se cuentan como cero.
+     * @param value el valor a registrar
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        buckets[64 - Long.numberOfLeadingZeros(v)].increment();
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getSum() {
+        return sum.sum();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * Aproxima un percentil devolviendo el límite superior de la cubeta que lo contiene.
+     * @param percentile percentil entre 0 y 100
+     * @return el valor aproximado, o 0 si no hay registros
+     */
+    public long getPercentile(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long target = (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i].sum();
+            if (seen >= Math.max(1, target)) {
+                return Math.min((1L << i) - 1, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    public void reset() {
+        for (LongAdder bucket : buckets) {
+            bucket.reset();
+        }
+        count.reset();
+        sum.reset();
+        max.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p99=%d max=%d",
+                getCount(), getMean(), getPercentile(50), getPercentile(99), getMax());
+    }
+}
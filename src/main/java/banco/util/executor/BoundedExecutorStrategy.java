@@ -0,0 +1,53 @@
+package banco.util.executor;
+
+import banco.util.Histogram;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta las tareas en un número fijo de hilos de plataforma. Las tareas que no caben esperan en cola.
+ */
+public class BoundedExecutorStrategy implements ExecutorStrategy {
+    private final ThreadPoolExecutor executor;
+    private final Histogram waitTimeMicros = new Histogram();
+
+    public BoundedExecutorStrategy(String name, int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("El número de hilos debe ser mayor que cero: " + threads);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submittedAt = System.nanoTime();
+        executor.execute(() -> {
+            waitTimeMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - submittedAt));
+            task.run();
+        });
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public Histogram getWaitTimeMicros() {
+        return waitTimeMicros;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
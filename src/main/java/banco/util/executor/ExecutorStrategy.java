@@ -0,0 +1,45 @@
+package banco.util.executor;
+
+import banco.util.Histogram;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Estrategia de ejecución de las tareas bloqueantes (JDBC) de los repositorios.
+ * Limita cuántas tareas se ejecutan a la vez para no competir por más conexiones de las que tiene el pool
+ * e informa de cuántas esperan y cuánto tiempo.
+ */
+public interface ExecutorStrategy extends Executor {
+
+    /**
+     * Pool de hilos de plataforma de tamaño fijo, normalmente igual al del pool de conexiones
+     * @param name prefijo del nombre de los hilos
+     * @param threads número de hilos
+     * @return la estrategia
+     */
+    static ExecutorStrategy bounded(String name, int threads) {
+        return new BoundedExecutorStrategy(name, threads);
+    }
+
+    /**
+     * Un hilo virtual por tarea, con un semáforo que limita las tareas en curso
+     * @param name prefijo del nombre de los hilos
+     * @param maxInFlight número máximo de tareas ejecutándose a la vez
+     * @return la estrategia
+     */
+    static ExecutorStrategy virtualThreads(String name, int maxInFlight) {
+        return new VirtualThreadExecutorStrategy(name, maxInFlight);
+    }
+
+    /**
+     * Número de tareas enviadas que todavía no han empezado a ejecutarse
+     */
+    int getQueueDepth();
+
+    /**
+     * Tiempo en microsegundos que pasa cada tarea esperando a ejecutarse
+     */
+    Histogram getWaitTimeMicros();
+
+    void shutdown();
+}
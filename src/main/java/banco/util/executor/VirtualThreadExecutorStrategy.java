@@ -0,0 +1,59 @@
+package banco.util.executor;
+
+import banco.util.Histogram;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lanza un hilo virtual por tarea. Un semáforo limita cuántas tareas trabajan a la vez,
+ * de modo que el resto espera aparcado sin ocupar hilos de plataforma ni conexiones.
+ */
+public class VirtualThreadExecutorStrategy implements ExecutorStrategy {
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final Histogram waitTimeMicros = new Histogram();
+
+    public VirtualThreadExecutorStrategy(String name, int maxInFlight) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("El número de tareas en curso debe ser mayor que cero: " + maxInFlight);
+        }
+        this.permits = new Semaphore(maxInFlight, true);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(name + "-", 1).factory());
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        long submittedAt = System.nanoTime();
+        waiting.incrementAndGet();
+        executor.execute(() -> {
+            permits.acquireUninterruptibly();
+            waiting.decrementAndGet();
+            waitTimeMicros.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - submittedAt));
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return waiting.get();
+    }
+
+    @Override
+    public Histogram getWaitTimeMicros() {
+        return waitTimeMicros;
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
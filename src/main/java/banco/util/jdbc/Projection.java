@@ -0,0 +1,43 @@
+package banco.util.jdbc;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Lista explícita de columnas de una consulta, en el orden en que las lee su {@link RowMapper}.
+ * Sustituye a {@code SELECT *}: la posición de cada columna queda fijada al construir la consulta
+ * y no depende del orden de las columnas en la tabla.
+ */
+public final class Projection {
+    private final List<String> columns;
+
+    private Projection(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public static Projection of(String... columns) {
+        return new Projection(List.of(columns));
+    }
+
+    /**
+     * @return las columnas separadas por comas
+     */
+    public String select() {
+        return String.join(", ", columns);
+    }
+
+    /**
+     * @param alias alias de la tabla en la consulta
+     * @return las columnas con el prefijo del alias, separadas por comas
+     */
+    public String select(String alias) {
+        return columns.stream().map(column -> alias + "." + column).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Número de columnas, que es el desplazamiento de la siguiente proyección en una consulta con JOIN
+     */
+    public int size() {
+        return columns.size();
+    }
+}
@@ -0,0 +1,33 @@
+package banco.util.jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Convierte la fila actual de un {@link ResultSet} en un objeto.
+ * Las implementaciones leen por posición sobre una {@link Projection} conocida, de modo que
+ * no se busca cada columna por nombre en cada fila.
+ * @param <T> el tipo del objeto
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    T mapRow(ResultSet rs) throws SQLException;
+
+    /**
+     * Recorre el resultado restante y convierte cada fila
+     * @param rs el resultado, sin avanzar
+     * @param mapper el conversor de filas
+     * @return lista con un elemento por fila
+     * @throws SQLException si falla la lectura
+     */
+    static <T> List<T> mapAll(ResultSet rs, RowMapper<T> mapper) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        while (rs.next()) {
+            rows.add(mapper.mapRow(rs));
+        }
+        return rows;
+    }
+}
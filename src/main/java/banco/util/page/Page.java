@@ -0,0 +1,24 @@
+package banco.util.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Página de resultados de una consulta paginada por clave
+ * @param <T> el tipo de los elementos
+ */
+@Data
+@AllArgsConstructor
+public class Page<T> {
+    private List<T> items;
+    /**
+     * Cursor para pedir la página siguiente, o {@code null} si esta es la última
+     */
+    private PageCursor next;
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
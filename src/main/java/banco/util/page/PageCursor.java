@@ -0,0 +1,28 @@
+package banco.util.page;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Posición dentro de un recorrido paginado por clave.
+ * Guarda la última clave devuelta en lugar de un desplazamiento, de modo que la siguiente
+ * página se obtiene con {@code WHERE clave > ?} y su coste no depende de la profundidad.
+ */
+@Data
+@AllArgsConstructor
+public class PageCursor {
+    /**
+     * Última clave de la página anterior, o {@code null} para la primera página
+     */
+    private String after;
+    private int limit;
+
+    /**
+     * Cursor de la primera página
+     * @param limit número máximo de elementos por página
+     * @return el cursor
+     */
+    public static PageCursor first(int limit) {
+        return new PageCursor(null, limit);
+    }
+}
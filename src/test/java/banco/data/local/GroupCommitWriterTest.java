@@ -0,0 +1,136 @@
+package banco.data.local;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitWriterTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalDatabaseManager db;
+    private GroupCommitWriter writer;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:sqlite:" + dir.resolve("group-commit.db"));
+        properties.setProperty("db.pool.size", "1");
+        properties.setProperty("db.connectionTimeout", "30000");
+        properties.setProperty("db.idleTimeout", "600000");
+        properties.setProperty("db.maxLifetime", "900000");
+        db = LocalDatabaseManager.newInstance(properties);
+        try (Connection conn = db.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE TABLE items (id INTEGER PRIMARY KEY)");
+        }
+        writer = new GroupCommitWriter(db, 50, 256);
+    }
+
+    @AfterEach
+    void tearDown() {
+        writer.shutdown();
+        db.shutdown();
+    }
+
+    private static GroupCommitWriter.Work<Integer> insert(int id) {
+        return conn -> {
+            try (PreparedStatement stmt = conn.prepareStatement("INSERT INTO items (id) VALUES (?)")) {
+                stmt.setInt(1, id);
+                return stmt.executeUpdate();
+            }
+        };
+    }
+
+    private int countItems() throws SQLException {
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM items")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void concurrentWritesShareOneTransaction() throws SQLException {
+        //Arrange
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+
+        //Act
+        for (int i = 0; i < 20; i++) {
+            futures.add(writer.submit(insert(i)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).orTimeout(10, TimeUnit.SECONDS).join();
+
+        //Assert
+        assertEquals(20, countItems());
+        assertEquals(20, writer.getCommitLatencyMicros().getCount());
+        assertTrue(writer.getBatchSizes().getCount() < 20, "Lotes: " + writer.getBatchSizes());
+        assertTrue(writer.getBatchSizes().getMax() > 1);
+    }
+
+    @Test
+    void failedWriteOnlyRollsBackItsSavepoint() throws SQLException {
+        //Arrange
+        writer.submit(insert(1)).join();
+
+        //Act
+        CompletableFuture<Integer> before = writer.submit(insert(2));
+        CompletableFuture<Integer> duplicated = writer.submit(insert(1));
+        CompletableFuture<Integer> after = writer.submit(insert(3));
+
+        //Assert
+        assertEquals(1, before.orTimeout(10, TimeUnit.SECONDS).join());
+        assertEquals(1, after.orTimeout(10, TimeUnit.SECONDS).join());
+        CompletionException error = assertThrows(CompletionException.class, duplicated::join);
+        assertInstanceOf(SQLException.class, error.getCause());
+        assertEquals(3, countItems());
+    }
+
+    @Test
+    void dependentStagesDoNotRunOnTheWriterThread() {
+        //Act
+        String thread = writer.submit(insert(1))
+                .thenApply(rows -> Thread.currentThread().getName())
+                .orTimeout(10, TimeUnit.SECONDS)
+                .join();
+
+        //Assert
+        assertNotEquals("sqlite-group-commit", thread);
+    }
+
+    @Test
+    void shutdownCommitsQueuedWritesAndRejectsNewOnes() throws SQLException {
+        //Arrange
+        List<CompletableFuture<Integer>> queued = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            queued.add(writer.submit(insert(i)));
+        }
+
+        //Act
+        writer.shutdown();
+        CompletableFuture<Integer> rejected = writer.submit(insert(100));
+
+        //Assert
+        CompletableFuture.allOf(queued.toArray(CompletableFuture[]::new)).orTimeout(10, TimeUnit.SECONDS).join();
+        assertEquals(10, countItems());
+        CompletionException error = assertThrows(CompletionException.class, rejected::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+    }
+}
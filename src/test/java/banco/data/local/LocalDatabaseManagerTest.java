@@ -0,0 +1,144 @@
+package banco.data.local;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sqlite.SQLiteConnection;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalDatabaseManagerTest {
+
+    private LocalDatabaseManager db;
+
+    @BeforeEach
+    void setUp() {
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:sqlite::memory:");
+        properties.setProperty("db.pool.size", "2");
+        properties.setProperty("db.statementCache.size", "2");
+        properties.setProperty("db.connectionTimeout", "30000");
+        properties.setProperty("db.idleTimeout", "600000");
+        properties.setProperty("db.maxLifetime", "900000");
+        db = LocalDatabaseManager.newInstance(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        db.shutdown();
+    }
+
+    @Test
+    void prepareCachedReusesTheStatementOfTheSameConnection() throws SQLException {
+        //Arrange
+        long hits = db.getStatementCacheStats().getHits();
+
+        try (Connection conn = db.getConnection()) {
+            //Act
+            PreparedStatement first = db.prepareCached(conn, "SELECT 1");
+            PreparedStatement second = db.prepareCached(conn, "SELECT 1");
+
+            //Assert
+            assertSame(first, second);
+            assertEquals(hits + 1, db.getStatementCacheStats().getHits());
+            assertEquals(1, db.getStatementCacheCount());
+        }
+    }
+
+    @Test
+    void prepareCachedClosesTheLeastRecentlyUsedStatementWhenFull() throws SQLException {
+        //Arrange
+        long evictions = db.getStatementCacheStats().getEvictions();
+
+        try (Connection conn = db.getConnection()) {
+            PreparedStatement oldest = db.prepareCached(conn, "SELECT 1");
+            db.prepareCached(conn, "SELECT 2");
+
+            //Act
+            db.prepareCached(conn, "SELECT 3");
+
+            //Assert
+            assertTrue(oldest.isClosed());
+            assertEquals(evictions + 1, db.getStatementCacheStats().getEvictions());
+            assertNotSame(oldest, db.prepareCached(conn, "SELECT 1"));
+        }
+    }
+
+    @Test
+    void prepareCachedForgetsTheCacheOfAClosedConnection() throws SQLException {
+        //Arrange
+        Connection closing = db.getConnection();
+        Connection open = db.getConnection();
+        db.prepareCached(closing, "SELECT 1");
+        db.prepareCached(open, "SELECT 1");
+        assertEquals(2, db.getStatementCacheCount());
+
+        //Act
+        closing.unwrap(SQLiteConnection.class).close();
+        db.prepareCached(open, "SELECT 1");
+
+        //Assert
+        assertEquals(1, db.getStatementCacheCount());
+
+        //Clean up
+        open.close();
+        try {
+            closing.close();
+        } catch (SQLException ignored) {
+            // Hikari puede quejarse al devolver una conexión ya cerrada
+        }
+    }
+
+    @Test
+    void walModeReadsDoNotWaitForTheSingleWriter(@TempDir Path dir) throws SQLException {
+        //Arrange
+        Properties properties = new Properties();
+        properties.setProperty("db.url", "jdbc:sqlite:" + dir.resolve("wal.db"));
+        properties.setProperty("db.wal.enabled", "true");
+        properties.setProperty("db.pool.readers", "2");
+        properties.setProperty("db.connectionTimeout", "250");
+        properties.setProperty("db.idleTimeout", "600000");
+        properties.setProperty("db.maxLifetime", "900000");
+        LocalDatabaseManager wal = LocalDatabaseManager.newInstance(properties);
+
+        try (Connection writer = wal.getConnection()) {
+            try (Statement stmt = writer.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE wal_test (id INTEGER)");
+            }
+            writer.setAutoCommit(false);
+            try (Statement stmt = writer.createStatement()) {
+                stmt.executeUpdate("INSERT INTO wal_test VALUES (1)");
+            }
+
+            //Act & Assert
+            // El único escritor está ocupado: otra escritura espera en el pool hasta agotar el timeout
+            assertThrows(SQLException.class, wal::getConnection);
+            // Las lecturas usan su propio pool, no esperan al escritor y no ven su transacción sin confirmar
+            try (Connection reader = wal.getReadConnection();
+                 Statement stmt = reader.createStatement()) {
+                try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM wal_test")) {
+                    assertTrue(rs.next());
+                    assertEquals(0, rs.getInt(1));
+                }
+                assertThrows(SQLException.class, () -> stmt.executeUpdate("INSERT INTO wal_test VALUES (2)"));
+            }
+            writer.commit();
+            writer.setAutoCommit(true);
+        } finally {
+            //Clean up
+            wal.shutdown();
+        }
+
+        assertTrue(wal.isWalEnabled());
+        assertEquals(3, wal.getMaxPoolSize());
+    }
+}
@@ -0,0 +1,125 @@
+package banco.data.remote;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRouterTest {
+
+    private HikariDataSource replica(int active, int waiting) {
+        HikariDataSource dataSource = mock(HikariDataSource.class);
+        HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+        when(pool.getActiveConnections()).thenReturn(active);
+        when(pool.getThreadsAwaitingConnection()).thenReturn(waiting);
+        when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+        return dataSource;
+    }
+
+    @Test
+    void roundRobinCyclesThroughReplicas() {
+        //Arrange
+        HikariDataSource first = replica(0, 0);
+        HikariDataSource second = replica(0, 0);
+        ReplicaRouter router = new ReplicaRouter(List.of(first, second), ReplicaRouter.Strategy.ROUND_ROBIN);
+
+        //Act & Assert
+        assertSame(first, router.next());
+        assertSame(second, router.next());
+        assertSame(first, router.next());
+    }
+
+    @Test
+    void leastConnectionsPicksTheIdlestReplica() {
+        //Arrange
+        HikariDataSource busy = replica(8, 2);
+        HikariDataSource idle = replica(1, 0);
+        HikariDataSource medium = replica(4, 0);
+        ReplicaRouter router = new ReplicaRouter(List.of(busy, idle, medium), ReplicaRouter.Strategy.LEAST_CONNECTIONS);
+
+        //Act & Assert
+        for (int i = 0; i < 3; i++) {
+            assertSame(idle, router.next());
+        }
+    }
+
+    @Test
+    void failedReplicaIsSkippedUntilItsRetryTime() {
+        //Arrange
+        AtomicLong now = new AtomicLong();
+        HikariDataSource first = replica(0, 0);
+        HikariDataSource second = replica(0, 0);
+        ReplicaRouter router = new ReplicaRouter(List.of(first, second), ReplicaRouter.Strategy.ROUND_ROBIN, 1000, now::get);
+
+        //Act
+        router.markFailed(first);
+
+        //Assert
+        for (int i = 0; i < 4; i++) {
+            assertSame(second, router.next());
+        }
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+        assertSame(first, router.next());
+        assertSame(second, router.next());
+    }
+
+    @Test
+    void leastConnectionsSkipsFailedReplicas() {
+        //Arrange
+        AtomicLong now = new AtomicLong();
+        HikariDataSource idle = replica(0, 0);
+        HikariDataSource busy = replica(8, 0);
+        ReplicaRouter router = new ReplicaRouter(List.of(idle, busy), ReplicaRouter.Strategy.LEAST_CONNECTIONS, 1000, now::get);
+
+        //Act
+        router.markFailed(idle);
+
+        //Assert
+        assertSame(busy, router.next());
+    }
+
+    @Test
+    void noReplicaIsReturnedWhenAllHaveFailed() {
+        //Arrange
+        AtomicLong now = new AtomicLong();
+        HikariDataSource only = replica(0, 0);
+        ReplicaRouter router = new ReplicaRouter(List.of(only), ReplicaRouter.Strategy.ROUND_ROBIN, 1000, now::get);
+
+        //Act
+        router.markFailed(only);
+
+        //Assert
+        assertNull(router.next());
+    }
+
+    @Test
+    void requiresAtLeastOneReplica() {
+        //Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> new ReplicaRouter(List.of(), ReplicaRouter.Strategy.ROUND_ROBIN));
+    }
+
+    @Test
+    void readYourWritesSessionReadsFromPrimaryAfterWriting() {
+        //Arrange
+        DatabaseSession session = DatabaseSession.readYourWrites();
+        DatabaseSession eventual = DatabaseSession.eventual();
+
+        //Act
+        boolean before = session.readsFromPrimary();
+        session.markWrite();
+        eventual.markWrite();
+
+        //Assert
+        assertFalse(before);
+        assertTrue(session.readsFromPrimary());
+        assertFalse(eventual.readsFromPrimary());
+    }
+}
@@ -1,17 +1,28 @@
 package banco.domain.cards.repository;
 
 import banco.domain.cards.model.BankCard;
+import banco.data.remote.PoolMetrics;
 import banco.data.remote.RemoteDatabaseManager;
+import banco.data.remote.RemoteMigrationRunner;
 import banco.domain.cards.repository.BankCardRepositoryImpl;
+import banco.util.page.Page;
+import banco.util.page.PageCursor;
 import org.junit.jupiter.api.*;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.containers.wait.strategy.Wait;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 
@@ -281,4 +292,258 @@ class BankCardRepositoryImplTest {
         assertTrue(cards.isEmpty(), "Expected empty list for non-existent client ID");
     }
 
+    @Test
+    @Order(12)
+    void testSaveAll() throws ExecutionException, InterruptedException {
+        // Arrange
+        List<BankCard> bankCards = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            bankCards.add(BankCard.builder()
+                    .number(String.format("4000%012d", i))
+                    .clientId(20L)
+                    .expirationDate(LocalDate.now().plusYears(3))
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        // Act
+        List<BankCard> saved = repository.saveAll(bankCards).get();
+
+        // Assert
+        assertEquals(2500, saved.size());
+        assertEquals(2500, repository.getBankCardsByClientId(20L).get().size());
+    }
+
+    @Test
+    @Order(13)
+    void testBulkLoadMergesExistingCards() throws ExecutionException, InterruptedException {
+        // Arrange
+        LocalDate newExpiration = LocalDate.now().plusYears(5);
+        BankCard existing = BankCard.builder()
+                .number("4000000000000000")
+                .clientId(21L)
+                .expirationDate(newExpiration)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        BankCard fresh = BankCard.builder()
+                .number("5000000000000000")
+                .clientId(21L)
+                .expirationDate(newExpiration)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        // Act
+        Long merged = repository.bulkLoad(Flux.just(existing, fresh)).get();
+
+        // Assert
+        assertEquals(2L, merged);
+        BankCard updated = repository.findById("4000000000000000").get();
+        assertEquals(21L, updated.getClientId());
+        assertEquals(newExpiration, updated.getExpirationDate());
+        assertNotNull(repository.findById("5000000000000000").get());
+    }
+
+    @Test
+    @Order(14)
+    void testStreamAllUsesCursor() throws ExecutionException, InterruptedException {
+        // Arrange
+        int total = repository.findAll().get().size();
+
+        // Act & Assert
+        StepVerifier.create(repository.streamAll(100))
+                .expectNextCount(total)
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(15)
+    void testStreamAllReleasesConnectionOnCancel() {
+        // Act & Assert
+        StepVerifier.create(repository.streamAll(10).take(5))
+                .expectNextCount(5)
+                .verifyComplete();
+        assertEquals(0, RemoteDatabaseManager.getInstance().getPoolMetrics().getActiveConnections());
+    }
+
+    @Test
+    @Order(16)
+    void testFindPageWalksEveryCard() throws ExecutionException, InterruptedException {
+        // Arrange
+        List<BankCard> all = repository.findAll().get();
+        List<String> seen = new ArrayList<>();
+        PageCursor cursor = PageCursor.first(300);
+
+        // Act
+        Page<BankCard> page;
+        do {
+            page = repository.findPage(cursor).get();
+            page.getItems().forEach(card -> seen.add(card.getNumber()));
+            cursor = page.getNext();
+        } while (page.hasNext());
+
+        // Assert
+        assertEquals(all.size(), seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen);
+    }
+
+    @Test
+    @Order(17)
+    void testFindPageByClient() throws ExecutionException, InterruptedException {
+        // Act
+        Page<BankCard> first = repository.findPageByClient(9L, null, 1).get();
+        Page<BankCard> second = repository.findPageByClient(9L, first.getNext()).get();
+
+        // Assert
+        assertEquals("1122334455667788", first.getItems().get(0).getNumber());
+        assertTrue(first.hasNext());
+        assertEquals("2233445566778899", second.getItems().get(0).getNumber());
+        assertFalse(second.hasNext());
+    }
+
+    @Test
+    @Order(18)
+    void testGetBankCardsByClientIds() throws ExecutionException, InterruptedException {
+        // Act
+        Map<Long, List<BankCard>> cards = repository.getBankCardsByClientIds(List.of(9L, 21L, 9L, 10L)).get();
+
+        // Assert
+        assertEquals(3, cards.size());
+        assertEquals(2, cards.get(9L).size());
+        assertEquals(List.of("4000000000000000", "5000000000000000"),
+                cards.get(21L).stream().map(BankCard::getNumber).toList());
+        assertTrue(cards.get(10L).isEmpty());
+    }
+
+    @Test
+    @Order(19)
+    void testMigrationsCreateIndexesOnce() throws SQLException {
+        // Arrange
+        List<String> indexes = new ArrayList<>();
+
+        // Act
+        try (Connection conn = RemoteDatabaseManager.getInstance().getConnection()) {
+            int applied = new RemoteMigrationRunner().migrate(conn);
+            try (ResultSet rs = conn.createStatement().executeQuery(
+                    "SELECT indexname FROM pg_indexes WHERE tablename = 'bankcards'")) {
+                while (rs.next()) {
+                    indexes.add(rs.getString(1));
+                }
+            }
+
+            // Assert
+            assertEquals(0, applied);
+        }
+        assertTrue(indexes.contains("idx_bankcards_clientid_number"));
+        assertTrue(indexes.contains("idx_bankcards_expirationdate"));
+    }
+
+    @Test
+    @Order(20)
+    void testPartitionMigrationKeepsCardsAndQueries() throws ExecutionException, InterruptedException {
+        // Arrange
+        RemoteDatabaseManager db = RemoteDatabaseManager.getInstance();
+        int before = repository.findAll().get().size();
+
+        // Act
+        db.migrate(new RemoteMigrationRunner(RemoteMigrationRunner.migrations(4)));
+
+        // Assert
+        assertTrue(db.isPartitioned());
+        assertEquals(before, repository.findAll().get().size());
+        assertNotNull(repository.findById(9L, "1122334455667788").get());
+        assertNull(repository.findById(10L, "1122334455667788").get());
+        assertEquals(2, repository.getBankCardsByClientId(9L).get().size());
+
+        LocalDate newExpiration = LocalDate.now().plusYears(6);
+        BankCard reloaded = BankCard.builder()
+                .number("1122334455667788")
+                .clientId(9L)
+                .expirationDate(newExpiration)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        assertEquals(1L, repository.bulkLoad(Flux.just(reloaded)).get());
+        assertEquals(newExpiration, repository.findById(9L, "1122334455667788").get().getExpirationDate());
+        assertTrue(repository.delete(9L, "2233445566778899").get());
+    }
+
+    @Test
+    @Order(21)
+    void testStreamExpiringBetween() throws ExecutionException, InterruptedException {
+        // Arrange
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(30);
+        long expected = repository.findAll().get().stream()
+                .filter(card -> !card.getExpirationDate().isBefore(from) && !card.getExpirationDate().isAfter(to))
+                .count();
+        BankCard expiring = BankCard.builder()
+                .number("6000000000000000")
+                .clientId(22L)
+                .expirationDate(from.plusDays(7))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        repository.save(expiring).get();
+
+        // Act & Assert
+        StepVerifier.create(repository.streamExpiringBetween(from, to))
+                .expectNextCount(expected + 1)
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(22)
+    void testPoolMetricsReflectActiveAndIdleConnections() throws SQLException {
+        // Arrange
+        RemoteDatabaseManager db = RemoteDatabaseManager.getInstance();
+        PoolMetrics before = db.getPoolMetrics();
+
+        // Act & Assert
+        try (Connection first = db.getConnection(); Connection second = db.getConnection()) {
+            PoolMetrics during = db.getPoolMetrics();
+            assertEquals(before.getActiveConnections() + 2, during.getActiveConnections());
+            assertEquals(during.getTotalConnections(), during.getActiveConnections() + during.getIdleConnections());
+            assertEquals(before.getAcquiredConnections() + 2, during.getAcquiredConnections());
+        }
+        PoolMetrics after = db.getPoolMetrics();
+        assertEquals(before.getActiveConnections(), after.getActiveConnections());
+        assertTrue(after.getIdleConnections() >= 2);
+        assertEquals(after.getTotalConnections(), after.getActiveConnections() + after.getIdleConnections());
+        // Sin réplicas las lecturas salen del primario y cuentan en sus métricas
+        assertTrue(db.getReplicaPoolMetrics().isEmpty());
+        try (Connection read = db.getReadConnection()) {
+            assertEquals(after.getAcquiredConnections() + 1, db.getPoolMetrics().getAcquiredConnections());
+        }
+    }
+
+    @Test
+    @Order(23)
+    void testPartitionedTableKeepsCardNumbersUnique() throws ExecutionException, InterruptedException {
+        // Arrange
+        assertTrue(RemoteDatabaseManager.getInstance().isPartitioned());
+        BankCard owned = BankCard.builder()
+                .number("7000000000000000")
+                .clientId(30L)
+                .expirationDate(LocalDate.now().plusYears(2))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+        repository.save(owned).get();
+        BankCard sameNumber = BankCard.builder()
+                .number("7000000000000000")
+                .clientId(31L)
+                .expirationDate(LocalDate.now().plusYears(3))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        // Act & Assert
+        assertThrows(ExecutionException.class, () -> repository.save(sameNumber).get());
+        assertEquals(1L, repository.bulkLoad(Flux.just(sameNumber)).get());
+        assertNull(repository.findById(30L, "7000000000000000").get());
+        assertEquals(31L, repository.findById("7000000000000000").get().getClientId());
+    }
 }
@@ -0,0 +1,144 @@
+package banco.domain.cards.repository;
+
+import banco.domain.cards.exceptions.BankCardNotFoundException;
+import banco.domain.cards.model.BankCard;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.*;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Testcontainers
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class R2dbcBankCardRepositoryTest {
+
+    private static R2dbcBankCardRepository repository;
+
+    @Container
+    private static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17.0-alpine")
+            .withDatabaseName("test")
+            .withPassword("password")
+            .withUsername("postgres")
+            .withInitScript("bankcards/init.sql")
+            .withExposedPorts(5432)
+            .waitingFor(Wait.forListeningPort());
+
+    @BeforeAll
+    public static void setUp() {
+        postgres.start();
+        ConnectionFactory connectionFactory = ConnectionFactories.get(ConnectionFactoryOptions.builder()
+                .option(ConnectionFactoryOptions.DRIVER, "postgresql")
+                .option(ConnectionFactoryOptions.HOST, postgres.getHost())
+                .option(ConnectionFactoryOptions.PORT, postgres.getMappedPort(5432))
+                .option(ConnectionFactoryOptions.DATABASE, postgres.getDatabaseName())
+                .option(ConnectionFactoryOptions.USER, postgres.getUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, postgres.getPassword())
+                .build());
+        repository = new R2dbcBankCardRepository(connectionFactory);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    private static BankCard card(String number, Long clientId, LocalDate expirationDate) {
+        return BankCard.builder()
+                .number(number)
+                .clientId(clientId)
+                .expirationDate(expirationDate)
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Test
+    @Order(1)
+    void testSaveAndFindById() {
+        // Arrange
+        BankCard bankCard = card("7100000000000001", 1L, LocalDate.now().plusYears(3));
+
+        // Act & Assert
+        StepVerifier.create(repository.save(bankCard).then(repository.findById("7100000000000001")))
+                .assertNext(found -> {
+                    assertEquals("7100000000000001", found.getNumber());
+                    assertEquals(1L, found.getClientId());
+                    assertEquals(bankCard.getExpirationDate(), found.getExpirationDate());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(2)
+    void testFindByIdNotFound() {
+        // Act & Assert
+        StepVerifier.create(repository.findById("7199999999999999"))
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(3)
+    void testUpdate() {
+        // Arrange
+        LocalDate newExpiration = LocalDate.now().plusYears(5);
+        BankCard updated = card("7100000000000001", 1L, newExpiration);
+
+        // Act & Assert
+        StepVerifier.create(repository.update("7100000000000001", updated).then(repository.findById("7100000000000001")))
+                .assertNext(found -> assertEquals(newExpiration, found.getExpirationDate()))
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(4)
+    void testUpdateNotFound() {
+        // Arrange
+        BankCard missing = card("7199999999999999", 1L, LocalDate.now().plusYears(1));
+
+        // Act & Assert
+        StepVerifier.create(repository.update("7199999999999999", missing))
+                .expectError(BankCardNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @Order(5)
+    void testGetBankCardsByClientIdAndStreamExpiring() {
+        // Arrange
+        LocalDate base = LocalDate.of(2031, 1, 1);
+        Flux<BankCard> saves = Flux.range(0, 20)
+                .flatMap(i -> repository.save(card(String.format("72000000000000%02d", i), 2L, base.plusDays(i))));
+
+        // Act & Assert
+        StepVerifier.create(saves.thenMany(repository.getBankCardsByClientId(2L)))
+                .expectNextCount(20)
+                .verifyComplete();
+        StepVerifier.create(repository.streamExpiringBetween(base.plusDays(5), base.plusDays(9)).map(BankCard::getNumber))
+                .expectNext("7200000000000005", "7200000000000006", "7200000000000007", "7200000000000008", "7200000000000009")
+                .verifyComplete();
+    }
+
+    @Test
+    @Order(6)
+    void testDelete() {
+        // Act & Assert
+        StepVerifier.create(repository.delete("7100000000000001"))
+                .expectNext(true)
+                .verifyComplete();
+        StepVerifier.create(repository.delete("7100000000000001"))
+                .expectNext(false)
+                .verifyComplete();
+    }
+}
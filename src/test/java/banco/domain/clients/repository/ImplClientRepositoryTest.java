@@ -6,12 +6,16 @@ import banco.data.local.LocalDatabaseManager;
 import banco.domain.cards.model.BankCard;
 import banco.domain.clients.model.Client;
 import org.junit.jupiter.api.*;
+import reactor.test.StepVerifier;
 
 import java.io.IOException;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.concurrent.ExecutionException;
 
@@ -91,6 +95,132 @@ class ImplClientRepositoryTest {
     }
 
 
+    @Test
+    void saveAllUpsertsByUsername() throws ExecutionException, InterruptedException {
+        //Arrange
+        Client existing = repository.save(new Client(null, "Juan", "test", "example@example.com")).get();
+        Client updated = new Client(null, "Juan Actualizado", "test", "example@example.com");
+        Client created = new Client(null, "Ana", "ana", "ana@example.com");
+        created.setCards(List.of(new BankCard("3333", null, LocalDate.now().plusYears(1))));
+
+        //Act
+        List<Client> saved = repository.saveAll(List.of(updated, created)).get();
+
+        //Assert
+        assertAll(
+                () -> assertEquals(existing.getId(), saved.get(0).getId()),
+                () -> assertNotNull(saved.get(1).getId()),
+                () -> assertEquals("Juan Actualizado", repository.findById(existing.getId()).get().getName()),
+                () -> assertEquals(1, repository.findById(saved.get(1).getId()).get().getCards().size())
+        );
+
+        //Clean up
+        repository.delete(existing.getId()).get();
+        repository.delete(saved.get(1).getId()).get();
+    }
+
+    @Test
+    void failedSaveAllLeavesNoIdsAndInsertReportsTheCollision() throws ExecutionException, InterruptedException {
+        //Arrange
+        Client ana = new Client(null, "Ana", "ana", "ana@example.com");
+        Client repeated = new Client(null, "Repetido", "repetido", "ana@example.com");
+        Client luis = new Client(null, "Luis", "luis", "luis@example.com");
+
+        //Act
+        ExecutionException batchError = assertThrows(ExecutionException.class,
+                () -> repository.saveAll(List.of(ana, repeated, luis)).get());
+        List<Long> idsAfterBatch = new ArrayList<>();
+        for (Client client : List.of(ana, repeated, luis)) {
+            idsAfterBatch.add(client.getId());
+        }
+        Client savedAna = repository.insert(ana).get();
+        ExecutionException insertError = assertThrows(ExecutionException.class, () -> repository.insert(repeated).get());
+        Client savedLuis = repository.insert(luis).get();
+
+        //Assert
+        assertAll(
+                () -> assertInstanceOf(SQLException.class, batchError.getCause()),
+                () -> assertTrue(idsAfterBatch.stream().allMatch(id -> id == null)),
+                () -> assertInstanceOf(SQLException.class, insertError.getCause()),
+                () -> assertNull(repeated.getId()),
+                () -> assertNull(repository.findByUsername("repetido", ClientHydration.CLIENTS_ONLY).get()),
+                () -> assertEquals("ana", repository.findById(savedAna.getId()).get().getUsername()),
+                () -> assertEquals("luis", repository.findById(savedLuis.getId()).get().getUsername())
+        );
+
+        //Clean up
+        repository.delete(savedAna.getId()).get();
+        repository.delete(savedLuis.getId()).get();
+    }
+
+    @Test
+    void findByIdLoadsCardsWithJoin() throws ExecutionException, InterruptedException {
+        //Arrange
+        Client client = new Client(null, "Juan", "test", "example@example.com");
+        client.setCards(List.of(
+                new BankCard("1111", null, LocalDate.now().plusYears(1)),
+                new BankCard("2222", null, LocalDate.now().plusYears(2))
+        ));
+        Client savedClient = repository.save(client).get();
+
+        //Act
+        Client withCards = repository.findById(savedClient.getId(), ClientHydration.WITH_CARDS).get();
+        Client withoutCards = repository.findById(savedClient.getId(), ClientHydration.CLIENTS_ONLY).get();
+
+        //Assert
+        assertAll(
+                () -> assertEquals(2, withCards.getCards().size()),
+                () -> assertEquals("1111", withCards.getCards().get(0).getNumber()),
+                () -> assertTrue(withoutCards.getCards().isEmpty())
+        );
+
+        //Clean up
+        repository.delete(savedClient.getId()).get();
+    }
+
+    @Test
+    void findByUsernameAndEmail() throws ExecutionException, InterruptedException {
+        //Arrange
+        Client savedClient = repository.save(new Client(null, "Juan", "test", "example@example.com")).get();
+
+        //Act
+        Client byUsername = repository.findByUsername("test", ClientHydration.CLIENTS_ONLY).get();
+        Client byEmail = repository.findByEmail("example@example.com", ClientHydration.CLIENTS_ONLY).get();
+        Client missing = repository.findByUsername("nadie", ClientHydration.CLIENTS_ONLY).get();
+
+        //Assert
+        assertAll(
+                () -> assertEquals(savedClient.getId(), byUsername.getId()),
+                () -> assertEquals(savedClient.getId(), byEmail.getId()),
+                () -> assertNull(missing)
+        );
+
+        //Clean up
+        repository.delete(savedClient.getId()).get();
+    }
+
+    @Test
+    void findByIds() throws ExecutionException, InterruptedException {
+        //Arrange
+        Client first = repository.save(new Client(null, "Juan", "juan", "juan@example.com")).get();
+        Client second = repository.save(new Client(null, "Ana", "ana", "ana@example.com")).get();
+
+        //Act
+        Map<Long, Client> found = repository.findByIds(List.of(first.getId(), second.getId(), -1L)).get();
+
+        //Assert
+        assertAll(
+                () -> assertEquals(2, found.size()),
+                () -> assertEquals("juan", found.get(first.getId()).getUsername()),
+                () -> assertEquals("ana", found.get(second.getId()).getUsername()),
+                () -> assertFalse(found.containsKey(-1L))
+        );
+
+        //Clean up
+        repository.delete(first.getId()).get();
+        repository.delete(second.getId()).get();
+    }
+
     @Test
     void findAll() throws ExecutionException, InterruptedException {
         //Act
@@ -114,6 +244,50 @@ class ImplClientRepositoryTest {
         repository.delete(client.getId()).get();
     }
 
+    @Test
+    void streamAllReadsEveryPage() throws ExecutionException, InterruptedException {
+        //Arrange
+        List<Client> saved = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            saved.add(repository.save(new Client(null, "Cliente " + i, "stream" + i, "stream" + i + "@example.com")).get());
+        }
+
+        //Act & Assert
+        StepVerifier.create(repository.streamAll(2, ClientHydration.CLIENTS_ONLY).map(Client::getUsername))
+                .expectNext("stream0", "stream1", "stream2", "stream3", "stream4")
+                .verifyComplete();
+
+        StepVerifier.create(repository.streamAll(2, ClientHydration.WITH_CARDS).take(1))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        //Clean up
+        for (Client client : saved) {
+            repository.delete(client.getId()).get();
+        }
+    }
+
+    @Test
+    void streamCardsExpiringBetween() throws ExecutionException, InterruptedException {
+        //Arrange
+        LocalDate today = LocalDate.now();
+        Client client = new Client(null, "Juan", "expiring", "expiring@example.com");
+        client.setCards(List.of(
+                new BankCard("3333", null, today.plusDays(10)),
+                new BankCard("1111", null, today.plusDays(5)),
+                new BankCard("2222", null, today.plusDays(60))
+        ));
+        Client savedClient = repository.save(client).get();
+
+        //Act & Assert
+        StepVerifier.create(repository.streamCardsExpiringBetween(today, today.plusDays(30)).map(BankCard::getNumber))
+                .expectNext("1111", "3333")
+                .verifyComplete();
+
+        //Clean up
+        repository.delete(savedClient.getId()).get();
+    }
+
     @Test
     void update() throws ExecutionException, InterruptedException {
         //Arrange
@@ -283,4 +457,50 @@ class ImplClientRepositoryTest {
         }
         assertNull(result);
     }
-}
\ No newline at end of file
+
+    @Test
+    void refreshClientsAndCards() throws ExecutionException, InterruptedException {
+        //Arrange
+        Client first = new Client(null, "Juan", "juan", "juan@example.com");
+        first.setCards(List.of(new BankCard("1111222233334444", null, LocalDate.now().plusYears(1))));
+        Client second = new Client(null, "Ana", "ana", "ana@example.com");
+        List<Integer> progress = new ArrayList<>();
+
+        //Act
+        repository.refreshClientsAndCards(List.of(first, second), Collections.emptyList(), 1,
+                (processed, total, cards) -> progress.add(processed)).get();
+        List<Client> clients = repository.findAll().get();
+
+        //Assert
+        assertEquals(List.of(1, 2), progress);
+        assertEquals(2, clients.size());
+        assertEquals(1, clients.get(0).getCards().size());
+
+        //Clean up
+        repository.refreshClientsAndCards(Collections.emptyList(), Collections.emptyList()).get();
+    }
+
+    @Test
+    void refreshClientsAndCardsFailureKeepsPreviousData() throws ExecutionException, InterruptedException {
+        //Arrange
+        Client existing = new Client(null, "Previo", "previo", "previo@example.com");
+        repository.refreshClientsAndCards(List.of(existing), Collections.emptyList()).get();
+        Client first = new Client(null, "Juan", "juan", "juan@example.com");
+        Client second = new Client(null, "Ana", "ana", "ana@example.com");
+        Client duplicated = new Client(null, "Juan bis", "juan", "juan.bis@example.com");
+        List<Integer> progress = new ArrayList<>();
+
+        //Act
+        repository.refreshClientsAndCards(List.of(first, second, duplicated), Collections.emptyList(), 1,
+                (processed, total, cards) -> progress.add(processed)).get();
+        List<Client> clients = repository.findAll().get();
+
+        //Assert
+        assertEquals(List.of(1, 2), progress);
+        assertEquals(1, clients.size());
+        assertEquals("previo", clients.get(0).getUsername());
+
+        //Clean up
+        repository.refreshClientsAndCards(Collections.emptyList(), Collections.emptyList()).get();
+    }
+}
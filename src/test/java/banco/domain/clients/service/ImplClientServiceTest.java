@@ -0,0 +1,159 @@
+package banco.domain.clients.service;
+
+import banco.domain.cards.model.BankCard;
+import banco.domain.cards.repository.BankCardRepository;
+import banco.domain.clients.model.Client;
+import banco.domain.clients.repository.ClientHydration;
+import banco.domain.clients.repository.ClientRemoteRepository;
+import banco.domain.clients.repository.ClientRepository;
+import banco.domain.clients.service.notification.NotificationService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ImplClientServiceTest {
+
+    private static ClientRepository localClientRepository;
+    private static BankCardRepository bankCardRepository;
+    private static ClientRemoteRepository remoteClientRepository;
+    private static ImplClientService service;
+
+    @BeforeAll
+    static void setUpAll() {
+        localClientRepository = mock(ClientRepository.class);
+        bankCardRepository = mock(BankCardRepository.class);
+        remoteClientRepository = mock(ClientRemoteRepository.class);
+        service = ImplClientService.getInstance(
+                localClientRepository,
+                bankCardRepository,
+                remoteClientRepository,
+                mock(NotificationService.class));
+    }
+
+    @BeforeEach
+    void setUp() {
+        reset(localClientRepository, bankCardRepository, remoteClientRepository);
+    }
+
+    private static boolean hasUsername(Client client, String username) {
+        return client != null && username.equals(client.getUsername());
+    }
+
+    @Test
+    void importClientsFromJsonFileSavesTheRestWhenOneClientConflicts(@TempDir Path dir) throws Exception {
+        //Arrange
+        File file = dir.resolve("clients.json").toFile();
+        Files.writeString(file.toPath(), "["
+                + "{\"name\":\"Ana\",\"username\":\"ana\",\"email\":\"ana@example.com\"},"
+                + "{\"name\":\"Repetido\",\"username\":\"repetido\",\"email\":\"ana@example.com\"},"
+                + "{\"name\":\"Luis\",\"username\":\"luis\",\"email\":\"luis@example.com\"}"
+                + "]", StandardCharsets.ISO_8859_1);
+        when(localClientRepository.saveAll(anyList())).thenReturn(CompletableFuture.failedFuture(
+                new CompletionException(new SQLException("UNIQUE constraint failed: clients.email"))));
+        when(localClientRepository.insert(any(Client.class)))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+        when(localClientRepository.insert(argThat(client -> hasUsername(client, "repetido")))).thenReturn(CompletableFuture.failedFuture(
+                new CompletionException(new SQLException("UNIQUE constraint failed: clients.email"))));
+
+        //Act
+        StepVerifier.create(service.importClientsFromJsonFile(file))
+                .verifyComplete();
+
+        //Assert
+        verify(localClientRepository).saveAll(anyList());
+        verify(localClientRepository, times(3)).insert(any(Client.class));
+        verify(remoteClientRepository).createClient(argThat(client -> hasUsername(client, "ana")));
+        verify(remoteClientRepository).createClient(argThat(client -> hasUsername(client, "luis")));
+        verify(remoteClientRepository, never()).createClient(argThat(client -> hasUsername(client, "repetido")));
+    }
+
+    @Test
+    void importClientsFromJsonFileUsesTheBatchWhenNoClientConflicts(@TempDir Path dir) throws Exception {
+        //Arrange
+        File file = dir.resolve("clients.json").toFile();
+        Files.writeString(file.toPath(), "["
+                + "{\"name\":\"Ana\",\"username\":\"ana\",\"email\":\"ana@example.com\"},"
+                + "{\"name\":\"Luis\",\"username\":\"luis\",\"email\":\"luis@example.com\"}"
+                + "]", StandardCharsets.ISO_8859_1);
+        when(localClientRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture(invocation.getArgument(0)));
+
+        //Act
+        StepVerifier.create(service.importClientsFromJsonFile(file))
+                .verifyComplete();
+
+        //Assert
+        verify(localClientRepository, never()).insert(any(Client.class));
+        verify(remoteClientRepository, times(2)).createClient(any(Client.class));
+    }
+
+    @Test
+    void findAllClientsDoesNotLoadCardsByDefault() {
+        //Arrange
+        when(remoteClientRepository.getAll()).thenReturn(List.of(new Client(1L, "Ana", "ana", "ana@example.com")));
+
+        //Act
+        List<Client> clients = service.findAllClients();
+
+        //Assert
+        assertEquals(1, clients.size());
+        assertTrue(clients.get(0).getCards().isEmpty());
+        verifyNoInteractions(bankCardRepository);
+    }
+
+    @Test
+    void findAllClientsWithCardsAttachesTheirCards() {
+        //Arrange
+        BankCard card = new BankCard("1234567812345678", 1L, LocalDate.now().plusYears(1));
+        when(remoteClientRepository.getAll()).thenReturn(List.of(new Client(1L, "Ana", "ana", "ana@example.com")));
+        when(bankCardRepository.getBankCardsByClientIds(anyCollection()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(1L, List.of(card))));
+
+        //Act
+        List<Client> clients = service.findAllClients(ClientHydration.WITH_CARDS);
+
+        //Assert
+        assertEquals(List.of(card), clients.get(0).getCards());
+    }
+
+    @Test
+    void saveClientWithoutIdCreatesIt() throws Exception {
+        //Arrange
+        Client client = new Client(null, "Nuevo", "nuevo", "nuevo@example.com");
+        Client created = new Client(42L, "Nuevo", "nuevo", "nuevo@example.com");
+        when(localClientRepository.findByUsername(eq("nuevo"), any(ClientHydration.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(localClientRepository.findByEmail(eq("nuevo@example.com"), any(ClientHydration.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(remoteClientRepository.createClient(client)).thenReturn(created);
+        when(localClientRepository.save(created)).thenReturn(CompletableFuture.completedFuture(created));
+
+        //Act
+        Client saved = service.saveClient(client);
+
+        //Assert
+        assertEquals(42L, saved.getId());
+        verify(localClientRepository).save(created);
+    }
+}
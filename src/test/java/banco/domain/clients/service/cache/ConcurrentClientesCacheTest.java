@@ -0,0 +1,194 @@
+package banco.domain.clients.service.cache;
+
+import banco.domain.clients.model.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentClientesCacheTest {
+
+    private final ConcurrentClientesCache cache = new ConcurrentClientesCache(100);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void putAndGet() {
+        //Arrange
+        Client client = new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf");
+
+        //Act
+        cache.put(1L, client);
+
+        //Assert
+        assertEquals(client, cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void remove() {
+        //Arrange
+        cache.put(1L, new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf"));
+
+        //Act
+        cache.remove(1L);
+
+        //Assert
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void nullKeyIsNeverCached() {
+        //Arrange
+        cache.put(1L, new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf"));
+
+        //Act
+        cache.put(null, new Client(null, "Sin id", "sinid", "sinid@mail.com"));
+
+        //Assert
+        assertNull(cache.get(null));
+        assertDoesNotThrow(() -> cache.remove(null));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void smallCacheHoldsMaxSizeClientsWhateverTheirIds() {
+        //Arrange
+        ConcurrentClientesCache small = new ConcurrentClientesCache(10, 64);
+
+        //Act
+        // Ids que caerían en el mismo segmento si la caché se repartiera en varios
+        for (long id = 0; id < 10; id++) {
+            small.put(id * 64, new Client(id * 64, "Cliente", "cliente" + id, "cliente" + id + "@mail.com"));
+        }
+
+        //Assert
+        for (long id = 0; id < 10; id++) {
+            assertNotNull(small.get(id * 64));
+        }
+
+        //Clean up
+        small.shutdown();
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedWithinSegment() {
+        //Arrange
+        ConcurrentClientesCache single = new ConcurrentClientesCache(2, 1);
+        single.put(1L, new Client(1L, "Uno", "uno", "uno@mail.com"));
+        single.put(2L, new Client(2L, "Dos", "dos", "dos@mail.com"));
+        single.get(1L);
+
+        //Act
+        single.put(3L, new Client(3L, "Tres", "tres", "tres@mail.com"));
+
+        //Assert
+        assertNotNull(single.get(1L));
+        assertNull(single.get(2L));
+        assertNotNull(single.get(3L));
+
+        //Clean up
+        single.shutdown();
+    }
+
+    @Test
+    void expiresAfterWrite() {
+        //Arrange
+        AtomicLong time = new AtomicLong();
+        var expiring = new ConcurrentClientesCache(100, 4, ExpirationPolicy.afterWrite(Duration.ofMinutes(1)), time::get);
+        expiring.put(1L, new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf"));
+
+        //Act
+        time.addAndGet(Duration.ofSeconds(30).toNanos());
+        Client beforeDeadline = expiring.get(1L);
+        time.addAndGet(Duration.ofSeconds(31).toNanos());
+        expiring.clear();
+
+        //Assert
+        assertNotNull(beforeDeadline);
+        assertEquals(0, expiring.size());
+        assertNull(expiring.get(1L));
+
+        //Clean up
+        expiring.shutdown();
+    }
+
+    @Test
+    void expiresAfterAccess() {
+        //Arrange
+        AtomicLong time = new AtomicLong();
+        var expiring = new ConcurrentClientesCache(100, 4, ExpirationPolicy.afterAccess(Duration.ofMinutes(1)), time::get);
+        expiring.put(1L, new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf"));
+
+        //Act
+        for (int i = 0; i < 5; i++) {
+            time.addAndGet(Duration.ofSeconds(45).toNanos());
+            assertNotNull(expiring.get(1L));
+        }
+        time.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        //Assert
+        assertNull(expiring.get(1L));
+
+        //Clean up
+        expiring.shutdown();
+    }
+
+    @Test
+    void recentlyCachedOldClientIsNotExpired() {
+        //Arrange
+        Client client = new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf");
+        client.setUpdatedAt(LocalDateTime.now().minusDays(30));
+        cache.put(1L, client);
+
+        //Act
+        cache.clear();
+
+        //Assert
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    void neverExceedsMaxSizeUnderConcurrentAccess() throws Exception {
+        //Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> tasks = new ArrayList<>();
+
+        //Act
+        for (int t = 0; t < 8; t++) {
+            tasks.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    long key = random.nextLong(1_000);
+                    if (random.nextBoolean()) {
+                        cache.put(key, new Client(key, "Cliente", "cliente" + key, "cliente" + key + "@mail.com"));
+                    } else {
+                        Client client = cache.get(key);
+                        assertTrue(client == null || client.getId() == key);
+                    }
+                    assertTrue(cache.size() <= 100);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+
+        //Assert
+        assertEquals(100, cache.size());
+    }
+}
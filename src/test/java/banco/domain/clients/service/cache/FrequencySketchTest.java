@@ -0,0 +1,56 @@
+package banco.domain.clients.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrequencySketchTest {
+
+    @Test
+    void frequencyCountsIncrements() {
+        //Arrange
+        FrequencySketch sketch = new FrequencySketch(100);
+
+        //Act
+        for (int i = 0; i < 5; i++) {
+            sketch.increment(42L);
+        }
+
+        //Assert
+        assertTrue(sketch.frequency(42L) >= 5);
+        assertTrue(sketch.frequency(43L) < 5);
+    }
+
+    @Test
+    void frequencySaturatesAtFifteen() {
+        //Arrange
+        FrequencySketch sketch = new FrequencySketch(100);
+
+        //Act
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(7L);
+        }
+
+        //Assert
+        assertEquals(15, sketch.frequency(7L));
+    }
+
+    @Test
+    void countersAreHalvedAfterSample() {
+        //Arrange
+        FrequencySketch sketch = new FrequencySketch(16);
+        for (int i = 0; i < 15; i++) {
+            sketch.increment(1L);
+        }
+
+        //Act
+        boolean halved = false;
+        for (long key = 1_000; key < 1_000 + 20 * 16 && !halved; key++) {
+            sketch.increment(key);
+            halved = sketch.frequency(1L) < 15;
+        }
+
+        //Assert
+        assertTrue(halved);
+    }
+}
@@ -0,0 +1,174 @@
+package banco.domain.clients.service.cache;
+
+import banco.domain.clients.model.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final ConcurrentClientesCache cache = new ConcurrentClientesCache(100, ExpirationPolicy.none());
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    private static Client client(long id) {
+        return new Client(id, "Cliente " + id, "cliente" + id, "cliente" + id + "@mail.com");
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        //Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Client>> results = new ArrayList<>();
+
+        //Act
+        for (int i = 0; i < 16; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                return cache.get(1L, id -> {
+                    loads.incrementAndGet();
+                    sleep(200);
+                    return client(id);
+                });
+            }));
+        }
+        start.countDown();
+        List<Client> clients = new ArrayList<>();
+        for (Future<Client> result : results) {
+            clients.add(result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        //Assert
+        assertEquals(1, loads.get());
+        clients.forEach(c -> assertEquals(1L, c.getId()));
+        assertNotNull(cache.get(1L));
+    }
+
+    @Test
+    void asyncMissesShareTheInFlightFuture() {
+        //Arrange
+        CompletableFuture<Client> remote = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        //Act
+        CompletableFuture<Client> first = cache.getAsync(2L, id -> {
+            loads.incrementAndGet();
+            return remote;
+        });
+        CompletableFuture<Client> second = cache.getAsync(2L, id -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(client(id));
+        });
+        boolean doneBeforeLoad = first.isDone() || second.isDone();
+        remote.complete(client(2L));
+
+        //Assert
+        assertFalse(doneBeforeLoad);
+        assertEquals(1, loads.get());
+        assertEquals(2L, first.join().getId());
+        assertSame(first.join(), second.join());
+        assertSame(first.join(), cache.get(2L));
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        //Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        //Act
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> cache.get(3L, id -> {
+            loads.incrementAndGet();
+            throw new IllegalStateException("API remota caída");
+        }));
+        Client retried = cache.get(3L, id -> {
+            loads.incrementAndGet();
+            return client(id);
+        });
+
+        //Assert
+        assertEquals("API remota caída", error.getMessage());
+        assertEquals(2, loads.get());
+        assertEquals(3L, retried.getId());
+    }
+
+    @Test
+    void failedAsyncLoadIsNotCached() {
+        //Act
+        CompletableFuture<Client> failed = cache.getAsync(4L,
+                id -> CompletableFuture.failedFuture(new IllegalStateException("API remota caída")));
+
+        //Assert
+        assertTrue(failed.isCompletedExceptionally());
+        assertNull(cache.get(4L));
+        assertEquals(4L, cache.getAsync(4L, id -> CompletableFuture.completedFuture(client(id))).join().getId());
+    }
+
+    @Test
+    void removeDuringLoadDiscardsTheResult() {
+        //Arrange
+        CompletableFuture<Client> remote = new CompletableFuture<>();
+        CompletableFuture<Client> loading = cache.getAsync(5L, id -> remote);
+
+        //Act
+        cache.remove(5L);
+        remote.complete(client(5L));
+
+        //Assert
+        assertEquals(5L, loading.join().getId());
+        assertNull(cache.get(5L));
+    }
+
+    @Test
+    void valueCachedAfterTheMissIsNotLoadedAgain() {
+        //Arrange
+        AtomicInteger reads = new AtomicInteger();
+        ConcurrentClientesCache racing = new ConcurrentClientesCache(100, ExpirationPolicy.none()) {
+            @Override
+            public Client get(Long key) {
+                // La primera lectura falla como si otra carga guardara el cliente justo después
+                return reads.getAndIncrement() == 0 ? null : super.get(key);
+            }
+        };
+        racing.put(1L, client(1));
+        SingleFlight<Long, Client> loads = new SingleFlight<>(racing);
+        AtomicInteger loaderCalls = new AtomicInteger();
+
+        //Act
+        Client result = loads.get(1L, id -> {
+            loaderCalls.incrementAndGet();
+            return client(id);
+        });
+
+        //Assert
+        assertEquals(1L, result.getId());
+        assertEquals(0, loaderCalls.get());
+
+        //Clean up
+        racing.shutdown();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
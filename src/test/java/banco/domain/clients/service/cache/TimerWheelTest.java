@@ -0,0 +1,92 @@
+package banco.domain.clients.service.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private static TimerWheel.Node<Long, String> node(long key, long deadline) {
+        TimerWheel.Node<Long, String> node = new TimerWheel.Node<>(key, "valor " + key);
+        node.deadline = deadline;
+        return node;
+    }
+
+    @Test
+    void advanceExpiresOnlyDueEntries() {
+        //Arrange
+        TimerWheel<Long, String> wheel = new TimerWheel<>(0);
+        wheel.schedule(node(1L, Duration.ofSeconds(5).toNanos()));
+        wheel.schedule(node(2L, Duration.ofMinutes(10).toNanos()));
+        wheel.schedule(node(3L, Duration.ofHours(5).toNanos()));
+        List<Long> expired = new ArrayList<>();
+
+        //Act & Assert
+        wheel.advance(Duration.ofSeconds(10).toNanos(), n -> expired.add(n.key));
+        assertEquals(List.of(1L), expired);
+
+        wheel.advance(Duration.ofMinutes(11).toNanos(), n -> expired.add(n.key));
+        assertEquals(List.of(1L, 2L), expired);
+
+        wheel.advance(Duration.ofHours(4).toNanos(), n -> expired.add(n.key));
+        assertEquals(List.of(1L, 2L), expired);
+
+        wheel.advance(Duration.ofHours(6).toNanos(), n -> expired.add(n.key));
+        assertEquals(List.of(1L, 2L, 3L), expired);
+    }
+
+    @Test
+    void descheduledEntryNeverExpires() {
+        //Arrange
+        TimerWheel<Long, String> wheel = new TimerWheel<>(0);
+        TimerWheel.Node<Long, String> node = node(1L, Duration.ofSeconds(5).toNanos());
+        wheel.schedule(node);
+        List<Long> expired = new ArrayList<>();
+
+        //Act
+        wheel.deschedule(node);
+        wheel.advance(Duration.ofMinutes(5).toNanos(), n -> expired.add(n.key));
+
+        //Assert
+        assertTrue(expired.isEmpty());
+    }
+
+    @Test
+    void rescheduleMovesTheDeadline() {
+        //Arrange
+        TimerWheel<Long, String> wheel = new TimerWheel<>(0);
+        TimerWheel.Node<Long, String> node = node(1L, Duration.ofSeconds(5).toNanos());
+        wheel.schedule(node);
+        List<Long> expired = new ArrayList<>();
+
+        //Act
+        node.deadline = Duration.ofMinutes(3).toNanos();
+        wheel.schedule(node);
+        wheel.advance(Duration.ofMinutes(1).toNanos(), n -> expired.add(n.key));
+        boolean expiredEarly = !expired.isEmpty();
+        wheel.advance(Duration.ofMinutes(4).toNanos(), n -> expired.add(n.key));
+
+        //Assert
+        assertFalse(expiredEarly);
+        assertEquals(List.of(1L), expired);
+    }
+
+    @Test
+    void worksWithNegativeClock() {
+        //Arrange
+        long origin = -Duration.ofSeconds(2).toNanos();
+        TimerWheel<Long, String> wheel = new TimerWheel<>(origin);
+        wheel.schedule(node(1L, origin + Duration.ofSeconds(3).toNanos()));
+        List<Long> expired = new ArrayList<>();
+
+        //Act
+        wheel.advance(origin + Duration.ofSeconds(5).toNanos(), n -> expired.add(n.key));
+
+        //Assert
+        assertEquals(List.of(1L), expired);
+    }
+}
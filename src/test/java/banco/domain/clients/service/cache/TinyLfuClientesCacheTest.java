@@ -0,0 +1,164 @@
+package banco.domain.clients.service.cache;
+
+import banco.domain.clients.model.Client;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TinyLfuClientesCacheTest {
+
+    private final TinyLfuClientesCache cache = new TinyLfuClientesCache(100);
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    private static Client client(long id) {
+        return new Client(id, "Cliente " + id, "cliente" + id, "cliente" + id + "@mail.com");
+    }
+
+    @Test
+    void putAndGet() {
+        //Arrange
+        Client client = client(1L);
+
+        //Act
+        cache.put(1L, client);
+
+        //Assert
+        assertEquals(client, cache.get(1L));
+        assertNull(cache.get(2L));
+    }
+
+    @Test
+    void remove() {
+        //Arrange
+        cache.put(1L, client(1L));
+        cache.put(2L, client(2L));
+        cache.get(2L);
+
+        //Act
+        cache.remove(1L);
+        cache.remove(2L);
+
+        //Assert
+        assertNull(cache.get(1L));
+        assertNull(cache.get(2L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void nullKeyIsNeverCached() {
+        //Arrange
+        Client client = client(1L);
+        cache.put(1L, client);
+
+        //Act
+        cache.put(null, client(2L));
+
+        //Assert
+        assertNull(cache.get(null));
+        assertDoesNotThrow(() -> cache.remove(null));
+        assertEquals(client, cache.get(1L));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void neverExceedsMaxSize() {
+        //Act
+        for (long i = 0; i < 10_000; i++) {
+            cache.put(i, client(i));
+            cache.get(i % 300);
+        }
+
+        //Assert
+        assertEquals(100, cache.size());
+    }
+
+    @Test
+    void scanDoesNotEvictFrequentlyUsedClients() {
+        //Arrange
+        for (int round = 0; round < 5; round++) {
+            for (long id = 0; id < 50; id++) {
+                if (cache.get(id) == null) {
+                    cache.put(id, client(id));
+                }
+            }
+        }
+
+        //Act
+        for (long id = 1_000; id < 11_000; id++) {
+            if (cache.get(id) == null) {
+                cache.put(id, client(id));
+            }
+        }
+
+        //Assert
+        for (long id = 0; id < 50; id++) {
+            assertNotNull(cache.get(id), "Cliente frecuente expulsado: " + id);
+        }
+    }
+
+    @Test
+    void expiresAfterWrite() {
+        //Arrange
+        AtomicLong time = new AtomicLong();
+        var expiring = new TinyLfuClientesCache(100, ExpirationPolicy.afterWrite(Duration.ofMinutes(1)), time::get);
+        expiring.put(1L, new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf"));
+
+        //Act
+        time.addAndGet(Duration.ofSeconds(30).toNanos());
+        Client beforeDeadline = expiring.get(1L);
+        time.addAndGet(Duration.ofSeconds(31).toNanos());
+        expiring.clear();
+
+        //Assert
+        assertNotNull(beforeDeadline);
+        assertEquals(0, expiring.size());
+        assertNull(expiring.get(1L));
+
+        //Clean up
+        expiring.shutdown();
+    }
+
+    @Test
+    void expiresAfterAccess() {
+        //Arrange
+        AtomicLong time = new AtomicLong();
+        var expiring = new TinyLfuClientesCache(100, ExpirationPolicy.afterAccess(Duration.ofMinutes(1)), time::get);
+        expiring.put(1L, new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf"));
+
+        //Act
+        for (int i = 0; i < 5; i++) {
+            time.addAndGet(Duration.ofSeconds(45).toNanos());
+            assertNotNull(expiring.get(1L));
+        }
+        time.addAndGet(Duration.ofSeconds(61).toNanos());
+
+        //Assert
+        assertNull(expiring.get(1L));
+
+        //Clean up
+        expiring.shutdown();
+    }
+
+    @Test
+    void recentlyCachedOldClientIsNotExpired() {
+        //Arrange
+        Client client = new Client(1L, "John Doe", "1234567890", "hfhkjhsfsbf");
+        client.setUpdatedAt(LocalDateTime.now().minusDays(30));
+        cache.put(1L, client);
+
+        //Act
+        cache.clear();
+
+        //Assert
+        assertNotNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,62 @@
+package banco.util.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorStrategyTest {
+
+    @Test
+    void boundedExecutorCapsConcurrentTasks() throws InterruptedException {
+        //Arrange
+        ExecutorStrategy bounded = ExecutorStrategy.bounded("test-bounded", 2);
+
+        //Act & Assert
+        assertConcurrencyCap(bounded, 2);
+
+        //Clean up
+        bounded.shutdown();
+    }
+
+    @Test
+    void virtualThreadExecutorCapsConcurrentTasks() throws InterruptedException {
+        //Arrange
+        ExecutorStrategy virtualThreads = ExecutorStrategy.virtualThreads("test-virtual", 3);
+
+        //Act & Assert
+        assertConcurrencyCap(virtualThreads, 3);
+
+        //Clean up
+        virtualThreads.shutdown();
+    }
+
+    private static void assertConcurrencyCap(ExecutorStrategy strategy, int limit) throws InterruptedException {
+        int tasks = 20;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            strategy.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+        int queued = strategy.getQueueDepth();
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertTrue(queued > 0, "Las tareas que superan el límite deben esperar");
+        assertTrue(maxRunning.get() <= limit, "Tareas a la vez: " + maxRunning.get());
+        assertEquals(tasks, strategy.getWaitTimeMicros().getCount());
+    }
+}